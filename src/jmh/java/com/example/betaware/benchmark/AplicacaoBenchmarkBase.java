@@ -0,0 +1,71 @@
+package com.example.betaware.benchmark;
+
+import com.example.betaware.BetawareApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Sobe a aplicação completa (H2 em memória, dados do DataInitializer) e expõe um {@link MockMvc}
+ * com a cadeia de segurança, além de um token válido para o usuário de teste.
+ */
+@State(Scope.Benchmark)
+public abstract class AplicacaoBenchmarkBase {
+
+    protected ConfigurableApplicationContext contexto;
+    protected MockMvc mockMvc;
+    protected ObjectMapper objectMapper;
+    protected String authorization;
+
+    @Setup(Level.Trial)
+    public void iniciarAplicacao() throws Exception {
+        contexto = new SpringApplicationBuilder(BetawareApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.security=WARN",
+                        "logging.level.com.example.betaware=WARN",
+                        "logging.level.org.hibernate.SQL=WARN")
+                .properties(propriedades())
+                .run();
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto)
+                .apply(springSecurity())
+                .build();
+        objectMapper = contexto.getBean(ObjectMapper.class);
+
+        MvcResult login = mockMvc.perform(post("/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"usuario1\",\"senha\":\"senha123\"}"))
+                .andReturn();
+        String resposta = mockMvc.perform(asyncDispatch(login)).andReturn().getResponse().getContentAsString();
+        JsonNode jwt = objectMapper.readTree(resposta);
+        authorization = "Bearer " + jwt.get("token").asText();
+    }
+
+    // propriedades adicionais de cada benchmark
+    protected String[] propriedades() {
+        return new String[0];
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrarAplicacao() {
+        contexto.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.betaware.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Vazão ponta a ponta de /v1/apostas via MockMvc: filtro JWT, controller, serviço, JPA e Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ApostaApiBenchmark extends AplicacaoBenchmarkBase {
+
+    @Param({"100", "10000"})
+    private int apostasPorUsuario;
+
+    @Setup(Level.Trial)
+    public void popularApostas() throws Exception {
+        mockMvc.perform(post("/v1/apostas/lote")
+                .header("Authorization", authorization)
+                .contentType("application/x-ndjson")
+                .content(CargaApostas.ndjson(apostasPorUsuario)));
+    }
+
+    @Benchmark
+    public int listarApostas() throws Exception {
+        return mockMvc.perform(get("/v1/apostas").header("Authorization", authorization))
+                .andReturn().getResponse().getContentLength();
+    }
+
+    @Benchmark
+    public int listarPrimeiraPagina() throws Exception {
+        return mockMvc.perform(get("/v1/apostas/pagina").header("Authorization", authorization))
+                .andReturn().getResponse().getContentLength();
+    }
+
+    @Benchmark
+    public int consultarEstatisticas() throws Exception {
+        return mockMvc.perform(get("/v1/apostas/estatisticas").header("Authorization", authorization))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int criarAposta() throws Exception {
+        return mockMvc.perform(post("/v1/apostas")
+                        .header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(CargaApostas.json(1)))
+                .andReturn().getResponse().getStatus();
+    }
+}
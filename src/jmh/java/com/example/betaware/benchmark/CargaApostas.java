@@ -0,0 +1,28 @@
+package com.example.betaware.benchmark;
+
+/**
+ * Corpos de requisição com apostas sintéticas para os benchmarks.
+ */
+final class CargaApostas {
+
+    private static final String[] RESULTADOS = {"GANHOU", "PERDEU", "PENDENTE", "CANCELADA"};
+
+    private CargaApostas() {
+    }
+
+    static String json(int indice) {
+        return "{\"categoria\":\"" + (indice % 2 == 0 ? "Futebol" : "Basquete") + "\"," +
+                "\"jogo\":\"Jogo " + indice + "\"," +
+                "\"valor\":" + (10 + indice % 100) + ".50," +
+                "\"resultado\":\"" + RESULTADOS[indice % RESULTADOS.length] + "\"," +
+                "\"data\":\"2024-01-01T" + String.format("%02d:%02d:00", (indice / 60) % 24, indice % 60) + "\"}";
+    }
+
+    static String ndjson(int quantidade) {
+        StringBuilder corpo = new StringBuilder(quantidade * 128);
+        for (int i = 0; i < quantidade; i++) {
+            corpo.append(json(i)).append('\n');
+        }
+        return corpo.toString();
+    }
+}
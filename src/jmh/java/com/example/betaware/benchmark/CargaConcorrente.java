@@ -0,0 +1,194 @@
+package com.example.betaware.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Teste de carga com N clientes concorrentes em laço fechado contra uma instância já em execução.
+ * Cada cliente dispara a próxima requisição assim que recebe a anterior, usando o cliente HTTP
+ * assíncrono do JDK, então o gerador não precisa de uma thread por cliente.
+ *
+ * <pre>
+ * ./mvnw -P benchmark -DskipTests test-compile exec:java \
+ *     -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.betaware.benchmark.CargaConcorrente \
+ *     -Dexec.args="http://localhost:8080/api 5000 60"
+ * </pre>
+ *
+ * Rode uma vez com {@code spring.threads.virtual.enabled=false} e outra com {@code true} para comparar,
+ * ou contra a variante reativa ({@code -P reactive}) para comparar as duas pilhas.
+ * O resumo (vazão, p50, p90, p99, erros) é impresso e gravado em {@code target/carga-resultado.json}.
+ *
+ * <p>Credenciais: {@code -Dcarga.usuario} / {@code -Dcarga.senha} (padrão usuario1 / senha123). Com
+ * {@code -Dcarga.metricas=true} o teste também entra como ADMIN ({@code -Dcarga.admin},
+ * {@code -Dcarga.admin-senha}) e lê do actuator o heap usado e as threads vivas antes da carga e na
+ * metade dela, para estimar a memória por conexão.
+ */
+public final class CargaConcorrente {
+
+    // histograma com resolução de 1 ms até 60 s
+    private static final int LIMITE_MS = 60_000;
+
+    private final AtomicLongArray histograma = new AtomicLongArray(LIMITE_MS + 1);
+    private final AtomicLong sucessos = new AtomicLong();
+    private final AtomicLong erros = new AtomicLong();
+
+    private final HttpClient cliente;
+    private final HttpRequest requisicao;
+    private final long fimNanos;
+    private final CountDownLatch clientesAtivos;
+
+    private CargaConcorrente(HttpClient cliente, HttpRequest requisicao, int clientes, long fimNanos) {
+        this.cliente = cliente;
+        this.requisicao = requisicao;
+        this.fimNanos = fimNanos;
+        this.clientesAtivos = new CountDownLatch(clientes);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080/api";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        String caminho = args.length > 3 ? args[3] : "/v1/apostas";
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(cliente, baseUrl,
+                System.getProperty("carga.usuario", "usuario1"), System.getProperty("carga.senha", "senha123"));
+        boolean metricas = Boolean.getBoolean("carga.metricas");
+        String tokenAdmin = metricas ? login(cliente, baseUrl,
+                System.getProperty("carga.admin", "admin"), System.getProperty("carga.admin-senha", "senha123")) : null;
+        Map<String, Double> antes = metricas ? amostrarJvm(cliente, baseUrl, tokenAdmin) : null;
+
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long inicio = System.nanoTime();
+        CargaConcorrente carga = new CargaConcorrente(cliente, requisicao, clientes,
+                inicio + Duration.ofSeconds(segundos).toNanos());
+        for (int i = 0; i < clientes; i++) {
+            carga.disparar();
+        }
+        Map<String, Double> durante = null;
+        if (metricas) {
+            Thread.sleep(Duration.ofSeconds(segundos).toMillis() / 2);
+            durante = amostrarJvm(cliente, baseUrl, tokenAdmin);
+        }
+        carga.clientesAtivos.await();
+        double duracao = (System.nanoTime() - inicio) / 1e9;
+
+        Map<String, Object> resumo = carga.resumo(clientes, duracao);
+        if (metricas) {
+            resumo.put("heapAntesMb", antes.get("heap") / (1024 * 1024));
+            resumo.put("heapDuranteMb", durante.get("heap") / (1024 * 1024));
+            resumo.put("heapPorClienteKb", (durante.get("heap") - antes.get("heap")) / clientes / 1024);
+            resumo.put("threadsAntes", antes.get("threads"));
+            resumo.put("threadsDurante", durante.get("threads"));
+        }
+        String json = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(resumo);
+        System.out.println(json);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "carga-resultado.json"), json);
+    }
+
+    private void disparar() {
+        long envio = System.nanoTime();
+        cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((resposta, erro) -> {
+                    long latenciaMs = (System.nanoTime() - envio) / 1_000_000;
+                    if (erro == null && resposta.statusCode() < 400) {
+                        sucessos.incrementAndGet();
+                        histograma.incrementAndGet((int) Math.min(latenciaMs, LIMITE_MS));
+                    } else {
+                        erros.incrementAndGet();
+                    }
+
+                    if (System.nanoTime() < fimNanos) {
+                        disparar();
+                    } else {
+                        clientesAtivos.countDown();
+                    }
+                });
+    }
+
+    private Map<String, Object> resumo(int clientes, double duracaoSegundos) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("clientes", clientes);
+        resumo.put("duracaoSegundos", duracaoSegundos);
+        resumo.put("requisicoes", sucessos.get());
+        resumo.put("erros", erros.get());
+        resumo.put("requisicoesPorSegundo", sucessos.get() / duracaoSegundos);
+        resumo.put("p50Ms", percentil(0.50));
+        resumo.put("p90Ms", percentil(0.90));
+        resumo.put("p99Ms", percentil(0.99));
+        resumo.put("p999Ms", percentil(0.999));
+        return resumo;
+    }
+
+    private long percentil(double p) {
+        long alvo = (long) Math.ceil(sucessos.get() * p);
+        long acumulado = 0;
+        for (int ms = 0; ms <= LIMITE_MS; ms++) {
+            acumulado += histograma.get(ms);
+            if (acumulado >= alvo && alvo > 0) {
+                return ms;
+            }
+        }
+        return LIMITE_MS;
+    }
+
+    private static Map<String, Double> amostrarJvm(HttpClient cliente, String baseUrl, String token)
+            throws IOException, InterruptedException {
+        Map<String, Double> amostra = new LinkedHashMap<>();
+        amostra.put("heap", metrica(cliente, baseUrl, token, "jvm.memory.used?tag=area:heap"));
+        amostra.put("threads", metrica(cliente, baseUrl, token, "jvm.threads.live"));
+        return amostra;
+    }
+
+    private static double metrica(HttpClient cliente, String baseUrl, String token, String nome)
+            throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + nome))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpResponse<String> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Falha ao ler " + nome + ": HTTP " + resposta.statusCode());
+        }
+        return new ObjectMapper().readTree(resposta.body()).get("measurements").get(0).get("value").asDouble();
+    }
+
+    private static String login(HttpClient cliente, String baseUrl, String usuario, String senha)
+            throws IOException, InterruptedException {
+        String corpo = new ObjectMapper().createObjectNode()
+                .put("username", usuario)
+                .put("senha", senha)
+                .toString();
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        HttpResponse<String> resposta = cliente.send(login, HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Falha no login: HTTP " + resposta.statusCode());
+        }
+        return new ObjectMapper().readTree(resposta.body()).get("token").asText();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.betaware.benchmark;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.model.Aposta;
+import com.example.betaware.model.Usuario;
+import com.example.betaware.model.enums.ResultadoAposta;
+import com.example.betaware.service.ApostaService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@code ApostaService.converterParaDTO} sobre listas grandes. O método é privado, então é
+ * acessado por um {@link MethodHandle} resolvido uma única vez no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversaoApostaBenchmark {
+
+    @Param({"1000", "100000"})
+    private int quantidade;
+
+    private ApostaService apostaService;
+    private MethodHandle converterParaDTO;
+    private List<Aposta> apostas;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        apostaService = new ApostaService();
+        converterParaDTO = MethodHandles.privateLookupIn(ApostaService.class, MethodHandles.lookup())
+                .findVirtual(ApostaService.class, "converterParaDTO", MethodType.methodType(ApostaDTO.class, Aposta.class));
+
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setUsername("usuario1");
+
+        apostas = new ArrayList<>(quantidade);
+        LocalDateTime data = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < quantidade; i++) {
+            Aposta aposta = new Aposta();
+            aposta.setId((long) i);
+            aposta.setCategoria(i % 2 == 0 ? "Futebol" : "Basquete");
+            aposta.setJogo("Jogo " + i);
+            aposta.setValorCentavos(1_000L + i % 10_000);
+            aposta.setResultado(ResultadoAposta.values()[i % ResultadoAposta.values().length]);
+            aposta.setData(data.plusMinutes(i));
+            aposta.setUsuario(usuario);
+            apostas.add(aposta);
+        }
+    }
+
+    @Benchmark
+    public void converterLista(Blackhole blackhole) throws Throwable {
+        for (Aposta aposta : apostas) {
+            blackhole.consume((ApostaDTO) converterParaDTO.invokeExact(apostaService, aposta));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.betaware.benchmark;
+
+import com.example.betaware.service.IngestaoApostas;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Apostas gravadas por segundo com POST /v1/apostas concorrentes, no modo síncrono (uma transação
+ * por aposta) e com a ingestão assíncrona (lotes a cada {@code app.apostas.ingestao.intervalo}). No
+ * modo assíncrono cada invocação só termina quando todas as apostas aceitas foram confirmadas no
+ * banco, então os dois scores medem apostas duráveis por segundo, não apenas aceitas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EscritaAtrasadaBenchmark extends AplicacaoBenchmarkBase {
+
+    private static final int APOSTAS_POR_INVOCACAO = 2000;
+
+    @Param({"false", "true"})
+    private boolean assincrona;
+
+    @Param({"16"})
+    private int clientes;
+
+    private String aposta;
+    private ExecutorService executor;
+    private IngestaoApostas ingestao;
+
+    @Override
+    protected String[] propriedades() {
+        return new String[]{"app.apostas.ingestao.assincrona=" + assincrona};
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        aposta = CargaApostas.json(1);
+        executor = Executors.newFixedThreadPool(clientes);
+        ingestao = contexto.getBean(IngestaoApostas.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrarClientes() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(APOSTAS_POR_INVOCACAO)
+    public int criarApostas() throws Exception {
+        List<Future<Integer>> respostas = new ArrayList<>(APOSTAS_POR_INVOCACAO);
+        for (int i = 0; i < APOSTAS_POR_INVOCACAO; i++) {
+            respostas.add(executor.submit(() -> mockMvc.perform(post("/v1/apostas")
+                            .header("Authorization", authorization)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(aposta))
+                    .andReturn().getResponse().getStatus()));
+        }
+        int aceitas = 0;
+        for (Future<Integer> resposta : respostas) {
+            int status = resposta.get();
+            if (status == 200 || status == 202) {
+                aceitas++;
+            }
+        }
+        if (assincrona && !ingestao.aguardarGravacao(Duration.ofMinutes(1))) {
+            throw new IllegalStateException("apostas aceitas não foram gravadas");
+        }
+        return aceitas;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.betaware.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Linhas gravadas por segundo: POST /v1/apostas (uma aposta por requisição) contra
+ * POST /v1/apostas/lote. O lote usa {@link OperationsPerInvocation}, então os dois scores
+ * já estão em apostas/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IngestaoApostasBenchmark extends AplicacaoBenchmarkBase {
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private String aposta;
+    private String lote;
+
+    @Setup(Level.Trial)
+    public void prepararCorpos() {
+        aposta = CargaApostas.json(1);
+        lote = CargaApostas.ndjson(TAMANHO_LOTE);
+    }
+
+    @Benchmark
+    public int apostaUnica() throws Exception {
+        return mockMvc.perform(post("/v1/apostas")
+                        .header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(aposta))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public int lote() throws Exception {
+        return mockMvc.perform(post("/v1/apostas/lote")
+                        .header("Authorization", authorization)
+                        .contentType("application/x-ndjson")
+                        .content(lote))
+                .andReturn().getResponse().getStatus();
+    }
+}
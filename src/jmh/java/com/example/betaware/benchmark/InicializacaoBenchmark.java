@@ -0,0 +1,53 @@
+package com.example.betaware.benchmark;
+
+import com.example.betaware.BetawareApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo até a aplicação ficar pronta, no modo padrão (H2 em memória, create-drop e DataInitializer)
+ * e no profile {@code prod} (H2 em arquivo, Flyway e validate). No {@code prod} a primeira execução
+ * aplica as migrações; as seguintes medem a reinicialização com o banco já existente em
+ * {@code target/jmh-inicializacao}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class InicializacaoBenchmark {
+
+    @Param({"padrao", "prod"})
+    private String profile;
+
+    private ConfigurableApplicationContext contexto;
+
+    @Benchmark
+    public ConfigurableApplicationContext iniciar() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BetawareApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.security=WARN",
+                        "logging.level.com.example.betaware=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "app.datasource.diretorio=target/jmh-inicializacao");
+        if ("prod".equals(profile)) {
+            builder.profiles("prod");
+        }
+        contexto = builder.run();
+        return contexto;
+    }
+
+    @TearDown(Level.Iteration)
+    public void encerrar() {
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+}
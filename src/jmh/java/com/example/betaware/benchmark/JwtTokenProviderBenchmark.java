@@ -0,0 +1,91 @@
+package com.example.betaware.benchmark;
+
+import com.example.betaware.security.JwtKeyRing;
+import com.example.betaware.security.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.CharBuffer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    @Param({"ES256", "RS256"})
+    private String algoritmo;
+
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+    private String cabecalho;
+    private JwtKeyRing keyRing;
+
+    @Setup
+    public void setup() {
+        tokenProvider = criarTokenProvider(algoritmo);
+
+        UserDetails usuario = User.withUsername("usuario1").password("").roles("USER").build();
+        authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+        cabecalho = "Bearer " + token;
+        keyRing = (JwtKeyRing) ReflectionTestUtils.getField(tokenProvider, "keyRing");
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    /**
+     * Como o filtro fazia antes: substring do cabeçalho, um parser construído para validar e outro
+     * para extrair as claims. Compare {@code gc.alloc.rate.norm} com {@link #parseUnico()} usando
+     * {@code -prof gc}.
+     */
+    @Benchmark
+    public String parserPorChamada() {
+        String jwt = cabecalho.substring(7);
+        Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(jwt);
+        return Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(jwt).getPayload().getSubject();
+    }
+
+    // caminho atual do filtro: visão do cabeçalho sem cópia e uma única verificação
+    @Benchmark
+    public String parseUnico() {
+        JwtTokenProvider.Resultado resultado = tokenProvider.parse(CharBuffer.wrap(cabecalho, 7, cabecalho.length()));
+        if (!resultado.valido()) {
+            throw new IllegalStateException("token inválido");
+        }
+        return resultado.claims().getSubject();
+    }
+
+    // provider fora do contexto Spring, com um anel de chaves só em memória
+    static JwtTokenProvider criarTokenProvider(String algoritmo) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algoritmo", algoritmo);
+        ReflectionTestUtils.setField(keyRing, "diretorio", "");
+        ReflectionTestUtils.setField(keyRing, "rotacao", Duration.ofDays(7));
+        ReflectionTestUtils.setField(keyRing, "maxAgeJwks", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(keyRing, "jwtExpirationInMs", 86_400_000L);
+        ReflectionTestUtils.setField(keyRing, "segredoLegado", "");
+        keyRing.init();
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86_400_000L);
+        ReflectionTestUtils.setField(tokenProvider, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenProvider, "keyRing", keyRing);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.betaware.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.betaware.security.JwtTokenProvider;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o custo de log por requisição na configuração padrão (DEBUG em security e SQL, console
+ * síncrono) com o profile {@code prod} (INFO, JSON pelo appender assíncrono com ring buffer).
+ * Os dois gravam em arquivo em {@code target/} para não misturar a saída com a do JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LogBenchmark {
+
+    @Param({"padrao", "prod"})
+    private String configuracao;
+
+    private LoggerContext contexto;
+    private Logger security;
+    private Logger sql;
+    private Logger aplicacao;
+
+    private JwtTokenProvider tokenProvider;
+    private String tokenInvalido;
+
+    @Setup
+    public void setup() {
+        contexto = (LoggerContext) LoggerFactory.getILoggerFactory();
+        contexto.reset();
+
+        FileAppender<ILoggingEvent> arquivo = new FileAppender<>();
+        arquivo.setContext(contexto);
+        arquivo.setFile("target/jmh-log-" + configuracao + ".log");
+        arquivo.setAppend(false);
+
+        Appender<ILoggingEvent> appender;
+        ch.qos.logback.classic.Logger root = contexto.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        if ("prod".equals(configuracao)) {
+            LogstashEncoder encoder = new LogstashEncoder();
+            encoder.setContext(contexto);
+            encoder.start();
+            arquivo.setEncoder(encoder);
+            arquivo.start();
+
+            LoggingEventAsyncDisruptorAppender assincrono = new LoggingEventAsyncDisruptorAppender();
+            assincrono.setContext(contexto);
+            assincrono.setRingBufferSize(8192);
+            assincrono.addAppender(arquivo);
+            assincrono.start();
+            appender = assincrono;
+            root.setLevel(Level.INFO);
+        } else {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setContext(contexto);
+            encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n");
+            encoder.start();
+            arquivo.setEncoder(encoder);
+            arquivo.start();
+            appender = arquivo;
+            root.setLevel(Level.DEBUG);
+        }
+        root.addAppender(appender);
+
+        security = LoggerFactory.getLogger("org.springframework.security.web.FilterChainProxy");
+        sql = LoggerFactory.getLogger("org.hibernate.SQL");
+        aplicacao = LoggerFactory.getLogger("com.example.betaware.service.ApostaService");
+
+        tokenProvider = JwtTokenProviderBenchmark.criarTokenProvider("ES256");
+
+        UserDetails usuario = User.withUsername("usuario1").password("").roles("USER").build();
+        String token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+        // altera a assinatura para que a validação falhe
+        tokenInvalido = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.stop();
+    }
+
+    // linhas que uma requisição GET /v1/apostas gera com os níveis de log da configuração padrão
+    @Benchmark
+    public void requisicao() {
+        security.debug("Securing {} {}", "GET", "/v1/apostas");
+        security.debug("Set SecurityContextHolder to {}", "UsernamePasswordAuthenticationToken [Principal=usuario1]");
+        sql.debug("select a1_0.id,a1_0.categoria,a1_0.jogo,a1_0.valor_centavos,a1_0.resultado,a1_0.data,u1_0.username " +
+                "from apostas a1_0 join usuario u1_0 on u1_0.id=a1_0.usuario_id where u1_0.username=?");
+        aplicacao.debug("Listadas {} apostas para {}", 42, "usuario1");
+        security.debug("Secured {} {}", "GET", "/v1/apostas");
+    }
+
+    @Benchmark
+    public JwtTokenProvider.Resultado tokenInvalido() {
+        return tokenProvider.parse(tokenInvalido);
+    }
+}
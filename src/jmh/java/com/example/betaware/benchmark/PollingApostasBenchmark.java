@@ -0,0 +1,74 @@
+package com.example.betaware.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Cliente que consulta {@code GET /v1/apostas} repetidamente sem que as apostas mudem, por HTTP real
+ * (a compressão é feita pelo Tomcat, então MockMvc não serve aqui). Compara a resposta completa com
+ * a condicional ({@code If-None-Match}) e com/sem {@code Accept-Encoding: gzip}. Além da latência
+ * média, os contadores {@code bytesRecebidos} e {@code requisicoes} dão os bytes de corpo por consulta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PollingApostasBenchmark extends AplicacaoBenchmarkBase {
+
+    @Param({"100", "1000"})
+    private int apostasPorUsuario;
+
+    @Param({"false", "true"})
+    private boolean condicional;
+
+    @Param({"identity", "gzip"})
+    private String codificacao;
+
+    private HttpClient cliente;
+    private HttpRequest requisicao;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Trafego {
+        public long bytesRecebidos;
+        public long requisicoes;
+    }
+
+    @Setup(Level.Trial)
+    public void prepararCliente() throws Exception {
+        mockMvc.perform(post("/v1/apostas/lote")
+                .header("Authorization", authorization)
+                .contentType("application/x-ndjson")
+                .content(CargaApostas.ndjson(apostasPorUsuario)));
+
+        String url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api/v1/apostas";
+        cliente = HttpClient.newHttpClient();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", authorization)
+                .header("Accept-Encoding", codificacao)
+                .GET();
+
+        if (condicional) {
+            HttpResponse<Void> primeira = cliente.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+            builder.header("If-None-Match", primeira.headers().firstValue("ETag").orElseThrow());
+        }
+        requisicao = builder.build();
+    }
+
+    @Benchmark
+    public int consultarApostas(Trafego trafego) throws Exception {
+        HttpResponse<byte[]> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+        trafego.bytesRecebidos += resposta.body().length;
+        trafego.requisicoes++;
+        return resposta.statusCode();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.betaware.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt na força configurada em {@code app.security.bcrypt-strength} (use {@code -p forca=N}
+ * para comparar outras forças).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SenhaBenchmark {
+
+    @Param({"10"})
+    private int forca;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        passwordEncoder = new BCryptPasswordEncoder(forca);
+        hash = passwordEncoder.encode("senha123");
+    }
+
+    @Benchmark
+    public String codificar() {
+        return passwordEncoder.encode("senha123");
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return passwordEncoder.matches("senha123", hash);
+    }
+}
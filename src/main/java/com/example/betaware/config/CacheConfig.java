@@ -0,0 +1,67 @@
+package com.example.betaware.config;
+
+import com.example.betaware.event.UsuarioAlteradoEvent;
+import com.example.betaware.model.Usuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * Cache de {@link Usuario} por username e por id, usado por {@code UsuarioRepository}. Tamanho,
+ * expiração e estatísticas ficam em {@code spring.cache.caffeine.spec}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USUARIOS_POR_USERNAME = "usuariosPorUsername";
+    public static final String USUARIOS_POR_ID = "usuariosPorId";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Remove o usuário dos dois caches quando ele é alterado ou removido. A remoção é repetida após o
+     * commit para descartar uma leitura concorrente que tenha recarregado o valor antigo no meio tempo.
+     */
+    @EventListener
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        // um insert pode tornar obsoleta apenas uma entrada ausente, que não é cacheada
+        if (event.tipo() == UsuarioAlteradoEvent.Tipo.CRIADO) {
+            return;
+        }
+        evict(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(event);
+                }
+            });
+        }
+    }
+
+    private void evict(UsuarioAlteradoEvent event) {
+        Cache porId = cacheManager.getCache(USUARIOS_POR_ID);
+        if (porId != null) {
+            porId.evict(event.id());
+        }
+
+        Cache porUsername = cacheManager.getCache(USUARIOS_POR_USERNAME);
+        if (porUsername != null) {
+            porUsername.evict(event.username());
+            // o username pode ter mudado: a entrada antiga ainda aponta para o mesmo id
+            if (porUsername.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                caffeine.asMap().values().removeIf(valor ->
+                        valor instanceof Usuario usuario && Objects.equals(usuario.getId(), event.id()));
+            }
+        }
+    }
+}
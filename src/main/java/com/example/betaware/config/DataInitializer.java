@@ -6,6 +6,8 @@ import com.example.betaware.model.enums.Perfil;
 import com.example.betaware.model.enums.ResultadoAposta;
 import com.example.betaware.repository.ApostaRepository;
 import com.example.betaware.repository.UsuarioRepository;
+import com.example.betaware.service.EstatisticaApostaService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -14,6 +16,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 
+@Slf4j
 @Configuration
 public class DataInitializer {
 
@@ -25,13 +28,16 @@ public class DataInitializer {
     
     @Autowired
     private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EstatisticaApostaService estatisticaService;
     
     @Bean
     public CommandLineRunner loadData() {
         return args -> {
             try {
                 if (usuarioRepository.count() > 0) {
-                    System.out.println("Database already contains data. Skipping initialization.");
+                    log.info("Database already contains data. Skipping initialization.");
                     return;
                 }
 
@@ -63,7 +69,7 @@ public class DataInitializer {
         Aposta aposta1 = Aposta.builder()
                 .categoria("Futebol")
                 .jogo("Flamengo x Vasco")
-                .valor(100.0)
+                .valorCentavos(10_000L)
                 .resultado(ResultadoAposta.GANHOU)
                 .data(LocalDateTime.now().minusDays(3))
                 .usuario(user)
@@ -72,7 +78,7 @@ public class DataInitializer {
         Aposta aposta2 = Aposta.builder()
                 .categoria("Basquete")
                 .jogo("Lakers x Bulls")
-                .valor(50.0)
+                .valorCentavos(5_000L)
                 .resultado(ResultadoAposta.PERDEU)
                 .data(LocalDateTime.now().minusDays(2))
                 .usuario(user)
@@ -81,7 +87,7 @@ public class DataInitializer {
         Aposta aposta3 = Aposta.builder()
                 .categoria("Futebol")
                 .jogo("Brasil x Argentina")
-                .valor(200.0)
+                .valorCentavos(20_000L)
                 .resultado(ResultadoAposta.PENDENTE)
                 .data(LocalDateTime.now().plusDays(2))
                 .usuario(user)
@@ -90,12 +96,11 @@ public class DataInitializer {
         apostaRepository.save(aposta1);
         apostaRepository.save(aposta2);
         apostaRepository.save(aposta3);
+        estatisticaService.reconstruir(true);
         
-        System.out.println("*** INITIALIZATION COMPLETED SUCCESSFULLY ***");
-        System.out.println("Created " + usuarioRepository.count() + " users and " + apostaRepository.count() + " bets.");
+        log.info("Initialization completed: created {} users and {} bets.", usuarioRepository.count(), apostaRepository.count());
             } catch (Exception e) {
-                System.err.println("Error during database initialization: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Error during database initialization", e);
             }
         };
     }
@@ -0,0 +1,20 @@
+package com.example.betaware.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita {@code @Timed} nos serviços. Requisições HTTP ({@code http.server.requests}), consultas
+ * dos repositórios ({@code spring.data.repository.invocations}) e o pool Hikari ({@code hikaricp.*})
+ * já são medidos pela autoconfiguração do Actuator.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.betaware.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado à verificação de senhas (BCrypt), separado das threads de requisição. A fila é
+ * limitada: quando enche, a tarefa é recusada na hora em vez de acumular requisições.
+ *
+ * <p>Não é exposto como bean {@link java.util.concurrent.Executor} para não substituir o executor
+ * padrão do Spring usado pelas respostas assíncronas do MVC.
+ */
+@Component
+public class SenhaExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public SenhaExecutor(@Value("${app.auth.senha.threads:0}") int threads,
+                         @Value("${app.auth.senha.fila-maxima:100}") int filaMaxima,
+                         MeterRegistry meterRegistry) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(filaMaxima),
+                new CustomizableThreadFactory("senha-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // betaware.senha.executor.queued, .active, .queue.remaining, ...
+        new ExecutorServiceMetrics(executor, "betaware.senha", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * @throws RejectedExecutionException se a fila estiver cheia
+     */
+    public <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        return CompletableFuture.supplyAsync(tarefa, executor);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
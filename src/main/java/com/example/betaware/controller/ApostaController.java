@@ -1,56 +1,279 @@
 package com.example.betaware.controller;
 
 import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.dto.EstatisticasApostasDTO;
+import com.example.betaware.dto.LiquidacaoRequest;
+import com.example.betaware.dto.PaginaApostasDTO;
+import com.example.betaware.dto.RelatorioLiquidacaoDTO;
+import com.example.betaware.dto.RelatorioReconstrucaoDTO;
+import com.example.betaware.dto.ResultadoLoteDTO;
+import com.example.betaware.exception.NegocioException;
+import com.example.betaware.security.RateLimit;
 import com.example.betaware.service.ApostaService;
+import com.example.betaware.service.EstatisticaApostaService;
+import com.example.betaware.service.ExportacaoApostasService;
+import com.example.betaware.service.HubApostas;
+import com.example.betaware.service.IngestaoApostas;
+import com.example.betaware.service.LiquidacaoService;
+import com.example.betaware.service.VersaoApostasUsuario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/v1/apostas")
 @Tag(name = "Apostas", description = "APIs de gerenciamento de apostas")
 public class ApostaController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private ApostaService apostaService;
 
+    @Autowired
+    private EstatisticaApostaService estatisticaService;
+
+    @Autowired
+    private LiquidacaoService liquidacaoService;
+
+    @Autowired
+    private ExportacaoApostasService exportacaoService;
+
+    @Autowired
+    private VersaoApostasUsuario versaoApostas;
+
+    @Autowired
+    private HubApostas hubApostas;
+
+    @Autowired
+    private IngestaoApostas ingestaoApostas;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
-    @Operation(summary = "Criar aposta", description = "Cria uma nova aposta para o usuário autenticado")
+    @Operation(summary = "Criar aposta", description = "Cria uma nova aposta para o usuário autenticado. Com a ingestão assíncrona responde 202: a aposta foi aceita e será gravada em milissegundos")
     public ResponseEntity<ApostaDTO> criarAposta(
             @Valid @RequestBody ApostaDTO apostaDTO,
             @AuthenticationPrincipal UserDetails userDetails) {
+        if (ingestaoApostas.isHabilitada()) {
+            return ResponseEntity.accepted().body(ingestaoApostas.aceitar(apostaDTO, userDetails.getUsername()));
+        }
         return ResponseEntity.ok(apostaService.criarAposta(apostaDTO, userDetails.getUsername()));
     }
 
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @Operation(summary = "Criar apostas em lote", description = "Cria várias apostas a partir de um array JSON ou de um fluxo NDJSON, retornando o resultado de cada item")
+    public ResponseEntity<ResultadoLoteDTO> criarApostasEmLote(
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        try (MappingIterator<ApostaDTO> apostas = objectMapper.readerFor(ApostaDTO.class)
+                .readValues(request.getInputStream())) {
+            return ResponseEntity.ok(apostaService.criarApostasEmLote(
+                    new LeituraLote(apostas), userDetails.getUsername()));
+        }
+    }
+
     @GetMapping
-    @Operation(summary = "Listar apostas", description = "Lista todas as apostas do usuário autenticado")
-    public ResponseEntity<List<ApostaDTO>> listarApostas(@AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(apostaService.listarApostasPorUsuario(userDetails.getUsername()));
+    @Operation(summary = "Listar apostas", description = "Lista todas as apostas do usuário autenticado. Aceita If-None-Match e responde 304 se nada mudou")
+    public ResponseEntity<List<ApostaDTO>> listarApostas(
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
+        String etag = versaoApostas.etag(userDetails.getUsername());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return respostaComVersao(etag, apostaService.listarApostasPorUsuario(userDetails.getUsername()));
+    }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Listar apostas paginadas", description = "Lista as apostas do usuário autenticado em páginas ordenadas por data, usando o cursor retornado pela página anterior")
+    public ResponseEntity<PaginaApostasDTO> listarPaginaApostas(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(apostaService.listarPaginaPorUsuario(userDetails.getUsername(), cursor, tamanho));
+    }
+
+    @GetMapping(value = "/fluxo", produces = "application/x-ndjson")
+    @Operation(summary = "Transmitir apostas", description = "Transmite todas as apostas do usuário autenticado em NDJSON, uma por linha")
+    public ResponseEntity<StreamingResponseBody> transmitirApostas(@AuthenticationPrincipal UserDetails userDetails) {
+        String username = userDetails.getUsername();
+        StreamingResponseBody corpo = saida ->
+                apostaService.transmitirApostasPorUsuario(username, aposta -> escreverLinha(saida, aposta));
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(corpo);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream de apostas", description = "Server-sent events com cada aposta do usuário autenticado criada ou liquidada (evento 'aposta'), além de heartbeats periódicos")
+    public SseEmitter acompanharApostas(@AuthenticationPrincipal UserDetails userDetails) {
+        return hubApostas.assinar(userDetails.getUsername());
+    }
+
+    @GetMapping("/estatisticas")
+    @Operation(summary = "Estatísticas de apostas", description = "Retorna os totais do usuário autenticado, gerais e por categoria")
+    public ResponseEntity<EstatisticasApostasDTO> consultarEstatisticas(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(estatisticaService.consultar(userDetails.getUsername()));
+    }
+
+    @PostMapping("/estatisticas/reconstruir")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconstruir estatísticas", description = "Recalcula as estatísticas a partir das apostas e informa as divergências encontradas")
+    public ResponseEntity<RelatorioReconstrucaoDTO> reconstruirEstatisticas(
+            @RequestParam(defaultValue = "false") boolean corrigir) {
+        return ResponseEntity.ok(estatisticaService.reconstruir(corrigir));
+    }
+
+    @PostMapping("/liquidacao")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Liquidar apostas de um jogo", description = "Aplica o resultado a todas as apostas pendentes do jogo e retorna o relatório da liquidação")
+    public ResponseEntity<RelatorioLiquidacaoDTO> liquidarApostas(@Valid @RequestBody LiquidacaoRequest request) {
+        return ResponseEntity.ok(liquidacaoService.liquidar(request.getJogo(), request.getResultado()));
     }
 
     @GetMapping("/periodo")
-    @Operation(summary = "Listar apostas por período", description = "Lista todas as apostas dentro de um período")
+    @PreAuthorize("hasRole('ADMIN')")
+    @RateLimit(capacity = 5, refillPerMinute = 5)
+    @Operation(summary = "Listar apostas por período", description = "Lista todas as apostas dentro de um período (limitado em intervalo e quantidade)")
     public ResponseEntity<List<ApostaDTO>> listarApostasPorPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
         return ResponseEntity.ok(apostaService.listarApostasPorPeriodo(inicio, fim));
     }
 
+    @GetMapping(value = "/exportacao", produces = {"text/csv", "application/x-ndjson", "application/gzip"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @RateLimit(capacity = 2, refillPerMinute = 2)
+    @Operation(summary = "Exportar apostas por período", description = "Exporta as apostas do período [inicio, fim) em CSV ou NDJSON, opcionalmente comprimido com gzip")
+    public ResponseEntity<StreamingResponseBody> exportarApostas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "CSV") ExportacaoApostasService.Formato formato,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        exportacaoService.validarPeriodo(inicio, fim);
+
+        String arquivo = "apostas." + (formato == ExportacaoApostasService.Formato.CSV ? "csv" : "ndjson");
+        MediaType tipo = formato == ExportacaoApostasService.Formato.CSV
+                ? MediaType.parseMediaType("text/csv;charset=UTF-8") : APPLICATION_NDJSON;
+        if (gzip) {
+            arquivo += ".gz";
+            tipo = MediaType.parseMediaType("application/gzip");
+        }
+
+        // reserva antes do primeiro byte: uma exportação sem capacidade recebe 503, não um 200 truncado
+        ExportacaoApostasService.Reserva reserva = exportacaoService.reservar();
+        // a tarefa pode nunca rodar (executor assíncrono cheio, timeout, cliente que desistiu): a reserva
+        // volta quando a requisição assíncrona termina, qualquer que seja o motivo
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(reserva, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                reserva.liberar();
+            }
+        });
+        StreamingResponseBody corpo = saida -> exportacaoService.exportar(reserva, inicio, fim, formato, gzip, saida);
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+                .body(corpo);
+    }
+
     @GetMapping("/usuario/periodo")
-    @Operation(summary = "Listar apostas do usuário por período", description = "Lista todas as apostas do usuário dentro de um período")
+    @RateLimit(capacity = 30, refillPerMinute = 60)
+    @Operation(summary = "Listar apostas do usuário por período", description = "Lista todas as apostas do usuário dentro de um período. Aceita If-None-Match e responde 304 se nada mudou")
     public ResponseEntity<List<ApostaDTO>> listarApostasPorUsuarioEPeriodo(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
-        return ResponseEntity.ok(apostaService.listarApostasPorUsuarioEPeriodo(userDetails.getUsername(), inicio, fim));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            WebRequest webRequest) {
+        String etag = versaoApostas.etag(userDetails.getUsername());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return respostaComVersao(etag, apostaService.listarApostasPorUsuarioEPeriodo(userDetails.getUsername(), inicio, fim));
+    }
+
+    /**
+     * A ETag é fraca porque o Tomcat não comprime respostas com ETag forte. {@code no-cache} obriga o
+     * cliente a revalidar a cada consulta; {@code private} impede que proxies compartilhem a resposta.
+     */
+    private static <T> ResponseEntity<T> respostaComVersao(String etag, T corpo) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(corpo);
+    }
+
+    private void escreverLinha(OutputStream saida, ApostaDTO aposta) {
+        try {
+            saida.write(objectMapper.writeValueAsBytes(aposta));
+            saida.write('\n');
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converte falhas de leitura do JSON em erro de negócio, indicando o item com problema.
+     */
+    private static class LeituraLote implements Iterator<ApostaDTO> {
+
+        private final MappingIterator<ApostaDTO> apostas;
+        private int indice;
+
+        LeituraLote(MappingIterator<ApostaDTO> apostas) {
+            this.apostas = apostas;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return apostas.hasNextValue();
+            } catch (IOException e) {
+                throw new NegocioException("Conteúdo inválido no item " + indice + " do lote");
+            }
+        }
+
+        @Override
+        public ApostaDTO next() {
+            try {
+                return apostas.nextValue();
+            } catch (IOException e) {
+                throw new NegocioException("Conteúdo inválido no item " + indice + " do lote");
+            } finally {
+                indice++;
+            }
+        }
     }
-} 
\ No newline at end of file
+}
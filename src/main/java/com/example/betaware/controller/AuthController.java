@@ -2,6 +2,7 @@ package com.example.betaware.controller;
 
 import com.example.betaware.dto.JwtResponse;
 import com.example.betaware.dto.LoginRequest;
+import com.example.betaware.dto.RefreshTokenRequest;
 import com.example.betaware.dto.RegisterRequest;
 import com.example.betaware.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/v1/auth")
 @Tag(name = "Autenticação", description = "APIs de autenticação")
@@ -21,8 +24,21 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "Login de usuário", description = "Realiza o login do usuário e retorna o token JWT")
-    public ResponseEntity<JwtResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(authService.login(loginRequest));
+    public CompletableFuture<ResponseEntity<JwtResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return authService.loginAsync(loginRequest).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar token", description = "Troca o refresh token por um novo access token e um novo refresh token")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.renovar(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revoga a sessão do refresh token, incluindo os access tokens emitidos nela")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/register")
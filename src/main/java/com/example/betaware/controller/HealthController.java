@@ -1,16 +1,44 @@
 package com.example.betaware.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/v1/health")
 public class HealthController {
 
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
     @GetMapping
-    public ResponseEntity<String> healthCheck() {
-        return ResponseEntity.ok("API está online");
+    public ResponseEntity<Map<String, String>> healthCheck() {
+        return responder(healthEndpoint.health());
+    }
+
+    // a aplicação está de pé; não consulta dependências externas
+    @GetMapping("/liveness")
+    public ResponseEntity<Map<String, String>> liveness() {
+        return responder(healthEndpoint.healthForPath("liveness"));
+    }
+
+    // pronta para receber tráfego: inclui a verificação do datasource
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, String>> readiness() {
+        return responder(healthEndpoint.healthForPath("readiness"));
+    }
+
+    private ResponseEntity<Map<String, String>> responder(HealthComponent health) {
+        Status status = health != null ? health.getStatus() : Status.UNKNOWN;
+        HttpStatus httpStatus = Status.UP.equals(status) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(httpStatus).body(Map.of("status", status.getCode()));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.example.betaware.controller;
+
+import com.example.betaware.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+/**
+ * Chaves públicas de verificação dos tokens (RFC 7517). Outros serviços validam os tokens com este
+ * documento em cache, sem chamar a API a cada requisição.
+ */
+@RestController
+public class JwksController {
+
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Value("${app.jwt.jwks.max-age:PT5M}")
+    private Duration maxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks(WebRequest webRequest) {
+        JwtKeyRing.Anel anel = keyRing.anel();
+        if (webRequest.checkNotModified(anel.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(JWK_SET)
+                .eTag(anel.etag())
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .body(anel.jwks());
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.betaware.dto;
 
 import com.example.betaware.model.enums.ResultadoAposta;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -24,9 +26,12 @@ public class ApostaDTO {
     @NotBlank(message = "O jogo é obrigatório")
     private String jogo;
     
+    // em centavos; no JSON é um decimal com duas casas
     @NotNull(message = "O valor é obrigatório")
     @Positive(message = "O valor deve ser positivo")
-    private Double valor;
+    @JsonSerialize(using = CentavosSerializer.class)
+    @JsonDeserialize(using = CentavosDeserializer.class)
+    private Long valor;
     
     @NotNull(message = "O resultado é obrigatório")
     private ResultadoAposta resultado;
@@ -61,11 +66,11 @@ public class ApostaDTO {
         this.jogo = jogo;
     }
 
-    public @NotNull(message = "O valor é obrigatório") @Positive(message = "O valor deve ser positivo") Double getValor() {
+    public @NotNull(message = "O valor é obrigatório") @Positive(message = "O valor deve ser positivo") Long getValor() {
         return valor;
     }
 
-    public void setValor(@NotNull(message = "O valor é obrigatório") @Positive(message = "O valor deve ser positivo") Double valor) {
+    public void setValor(@NotNull(message = "O valor é obrigatório") @Positive(message = "O valor deve ser positivo") Long valor) {
         this.valor = valor;
     }
 
@@ -0,0 +1,40 @@
+package com.example.betaware.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Lê um valor monetário decimal do JSON ({@code 12.5}, {@code 12.50} ou {@code "12.50"}) e converte
+ * para centavos. Valores com mais de duas casas decimais são rejeitados em vez de arredondados.
+ */
+public class CentavosDeserializer extends StdDeserializer<Long> {
+
+    public CentavosDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+            return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return Math.multiplyExact(p.getLongValue(), 100L);
+            }
+            BigDecimal valor = token == JsonToken.VALUE_NUMBER_FLOAT
+                    ? p.getDecimalValue()
+                    : new BigDecimal(p.getText().trim());
+            return valor.movePointRight(2).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(),
+                    "valor monetário inválido, use no máximo duas casas decimais");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.betaware.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Escreve um valor em centavos como número decimal com duas casas ({@code 1250} vira {@code 12.50}).
+ */
+public class CentavosSerializer extends StdSerializer<Long> {
+
+    public CentavosSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long centavos, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeNumber(BigDecimal.valueOf(centavos, 2));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.betaware.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+// valores monetários em centavos
+public class EstatisticaCategoriaDTO {
+    private String categoria;
+    private long quantidade;
+    @JsonSerialize(using = CentavosSerializer.class)
+    private long totalApostado;
+    private long quantidadeGanhou;
+    private long quantidadePerdeu;
+    private long quantidadePendente;
+    private long quantidadeCancelada;
+    @JsonSerialize(using = CentavosSerializer.class)
+    private long resultadoLiquido;
+}
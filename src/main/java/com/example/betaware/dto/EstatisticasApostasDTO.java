@@ -0,0 +1,27 @@
+package com.example.betaware.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+// valores monetários em centavos
+public class EstatisticasApostasDTO {
+    private long quantidade;
+    @JsonSerialize(using = CentavosSerializer.class)
+    private long totalApostado;
+    private long quantidadeGanhou;
+    private long quantidadePerdeu;
+    private long quantidadePendente;
+    private long quantidadeCancelada;
+    @JsonSerialize(using = CentavosSerializer.class)
+    private long resultadoLiquido;
+    private List<EstatisticaCategoriaDTO> categorias;
+}
@@ -0,0 +1,19 @@
+package com.example.betaware.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemLoteDTO {
+    private int indice;
+    private Long id;
+    private String status;
+    private Map<String, String> erros;
+}
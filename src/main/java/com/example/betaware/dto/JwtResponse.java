@@ -11,6 +11,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class JwtResponse {
     private String token;
+    private String refreshToken;
+    // validade do access token; antes dela o cliente troca o refresh token por um novo par
+    private Long expiraEmSegundos;
     private String username;
     private String nome;
     private String perfil;
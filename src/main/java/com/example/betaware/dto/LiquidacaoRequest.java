@@ -0,0 +1,22 @@
+package com.example.betaware.dto;
+
+import com.example.betaware.model.enums.ResultadoAposta;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LiquidacaoRequest {
+
+    @NotBlank(message = "O jogo é obrigatório")
+    private String jogo;
+
+    @NotNull(message = "O resultado é obrigatório")
+    private ResultadoAposta resultado;
+}
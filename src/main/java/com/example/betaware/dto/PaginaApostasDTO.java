@@ -0,0 +1,17 @@
+package com.example.betaware.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaApostasDTO {
+    private List<ApostaDTO> apostas;
+    private String proximoCursor;
+}
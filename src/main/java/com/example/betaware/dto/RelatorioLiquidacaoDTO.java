@@ -0,0 +1,24 @@
+package com.example.betaware.dto;
+
+import com.example.betaware.model.enums.ResultadoAposta;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelatorioLiquidacaoDTO {
+    private String jogo;
+    private ResultadoAposta resultado;
+    private long apostasLiquidadas;
+    // soma dos valores das apostas liquidadas, em centavos
+    @JsonSerialize(using = CentavosSerializer.class)
+    private long valorTotal;
+    private int usuariosAfetados;
+    private int lotes;
+    private long duracaoMs;
+}
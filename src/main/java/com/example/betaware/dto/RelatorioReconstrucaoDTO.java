@@ -0,0 +1,17 @@
+package com.example.betaware.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelatorioReconstrucaoDTO {
+    private int registrosCalculados;
+    private int registrosArmazenados;
+    private int divergencias;
+    private boolean corrigido;
+}
@@ -0,0 +1,19 @@
+package com.example.betaware.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoLoteDTO {
+    private int total;
+    private int criadas;
+    private int rejeitadas;
+    private List<ItemLoteDTO> itens;
+}
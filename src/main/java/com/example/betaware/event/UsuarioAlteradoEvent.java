@@ -0,0 +1,14 @@
+package com.example.betaware.event;
+
+/**
+ * Publicado sempre que um {@link com.example.betaware.model.Usuario} é inserido, alterado ou removido,
+ * para que caches e índices em memória possam se manter consistentes com o banco.
+ */
+public record UsuarioAlteradoEvent(Long id, String username, String email, String cpf, Tipo tipo) {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.betaware.event;
+
+import com.example.betaware.model.Usuario;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Listener JPA de {@link Usuario}. É instanciado pelo Hibernate através do container do Spring,
+ * por isso pode receber dependências injetadas.
+ */
+public class UsuarioEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void aposInserir(Usuario usuario) {
+        publicar(usuario, UsuarioAlteradoEvent.Tipo.CRIADO);
+    }
+
+    @PostUpdate
+    public void aposAtualizar(Usuario usuario) {
+        publicar(usuario, UsuarioAlteradoEvent.Tipo.ATUALIZADO);
+    }
+
+    @PostRemove
+    public void aposRemover(Usuario usuario) {
+        publicar(usuario, UsuarioAlteradoEvent.Tipo.REMOVIDO);
+    }
+
+    private void publicar(Usuario usuario, UsuarioAlteradoEvent.Tipo tipo) {
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(
+                usuario.getId(), usuario.getUsername(), usuario.getEmail(), usuario.getCpf(), tipo));
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.betaware.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
@@ -40,6 +42,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(erro);
     }
 
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErroResponse> handleAccessDeniedException(AccessDeniedException ex, WebRequest request) {
+        ErroResponse erro = new ErroResponse(
+                LocalDateTime.now(),
+                HttpStatus.FORBIDDEN.value(),
+                "Acesso negado",
+                "Usuário sem permissão para este recurso",
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(erro);
+    }
+
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<ErroResponse> handleUsernameNotFoundException(UsernameNotFoundException ex, WebRequest request) {
         ErroResponse erro = new ErroResponse(
@@ -88,6 +102,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
     }
 
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<ErroResponse> handleServicoSobrecarregadoException(ServicoSobrecarregadoException ex, WebRequest request) {
+        ErroResponse erro = new ErroResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Serviço sobrecarregado",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+                .body(erro);
+    }
+
+    @ExceptionHandler(LimiteRequisicoesExcedidoException.class)
+    public ResponseEntity<ErroResponse> handleLimiteRequisicoesExcedidoException(LimiteRequisicoesExcedidoException ex, WebRequest request) {
+        ErroResponse erro = new ErroResponse(
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Muitas requisições",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+                .body(erro);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErroResponse> handleRuntimeException(RuntimeException ex, WebRequest request) {
         ErroResponse erro = new ErroResponse(
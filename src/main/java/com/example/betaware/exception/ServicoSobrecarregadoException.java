@@ -0,0 +1,15 @@
+package com.example.betaware.exception;
+
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public ServicoSobrecarregadoException(String mensagem, long retryAfterSegundos) {
+        super(mensagem);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
@@ -14,11 +16,17 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "apostas")
+@Table(name = "apostas", indexes = {
+        @Index(name = "idx_apostas_usuario_data", columnList = "usuario_id, data"),
+        @Index(name = "idx_apostas_data", columnList = "data"),
+        @Index(name = "idx_apostas_usuario_resultado", columnList = "usuario_id, resultado"),
+        @Index(name = "idx_apostas_jogo_resultado", columnList = "jogo, resultado")
+})
 public class Aposta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "apostas_seq")
+    @SequenceGenerator(name = "apostas_seq", sequenceName = "apostas_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -28,13 +36,15 @@ public class Aposta {
     @Column(nullable = false)
     private String jogo;
 
+    // em centavos
     @NotNull(message = "O valor é obrigatório")
     @Positive(message = "O valor deve ser positivo")
     @Column(nullable = false)
-    private Double valor;
+    private Long valorCentavos;
 
     @NotNull(message = "O resultado é obrigatório")
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private ResultadoAposta resultado;
 
@@ -43,7 +53,7 @@ public class Aposta {
     private LocalDateTime data;
 
     @NotNull(message = "O usuário é obrigatório")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
 
@@ -64,12 +74,12 @@ public class Aposta {
         this.jogo = jogo;
     }
 
-    public @NotNull(message = "O valor é obrigatório") @Positive(message = "O valor deve ser positivo") Double getValor() {
-        return valor;
+    public @NotNull(message = "O valor é obrigatório") @Positive(message = "O valor deve ser positivo") Long getValorCentavos() {
+        return valorCentavos;
     }
 
-    public void setValor(@NotNull(message = "O valor é obrigatório") @Positive(message = "O valor deve ser positivo") Double valor) {
-        this.valor = valor;
+    public void setValorCentavos(@NotNull(message = "O valor é obrigatório") @Positive(message = "O valor deve ser positivo") Long valorCentavos) {
+        this.valorCentavos = valorCentavos;
     }
 
     public @NotNull(message = "A data é obrigatória") LocalDateTime getData() {
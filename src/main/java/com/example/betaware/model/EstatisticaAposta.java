@@ -0,0 +1,72 @@
+package com.example.betaware.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agregado das apostas de um usuário em uma categoria. É mantido incrementalmente na mesma
+ * transação que grava ou altera as apostas, e pode ser recalculado a partir da tabela apostas.
+ * Valores monetários em centavos.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "estatisticas_apostas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_estatisticas_usuario_categoria", columnNames = {"usuario_id", "categoria"}))
+public class EstatisticaAposta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(nullable = false, length = 100)
+    private String categoria;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(nullable = false)
+    private long totalApostadoCentavos;
+
+    @Column(nullable = false)
+    private long quantidadeGanhou;
+
+    @Column(nullable = false)
+    private long quantidadePerdeu;
+
+    @Column(nullable = false)
+    private long quantidadePendente;
+
+    @Column(nullable = false)
+    private long quantidadeCancelada;
+
+    @Column(nullable = false)
+    private long valorGanhoCentavos;
+
+    @Column(nullable = false)
+    private long valorPerdidoCentavos;
+
+    // usado pela consulta de recálculo a partir da tabela apostas
+    public EstatisticaAposta(Long usuarioId, String categoria, Long quantidade, Long totalApostadoCentavos,
+                             Long quantidadeGanhou, Long quantidadePerdeu, Long quantidadePendente,
+                             Long quantidadeCancelada, Long valorGanhoCentavos, Long valorPerdidoCentavos) {
+        this.usuarioId = usuarioId;
+        this.categoria = categoria;
+        this.quantidade = quantidade;
+        this.totalApostadoCentavos = totalApostadoCentavos;
+        this.quantidadeGanhou = quantidadeGanhou;
+        this.quantidadePerdeu = quantidadePerdeu;
+        this.quantidadePendente = quantidadePendente;
+        this.quantidadeCancelada = quantidadeCancelada;
+        this.valorGanhoCentavos = valorGanhoCentavos;
+        this.valorPerdidoCentavos = valorPerdidoCentavos;
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.betaware.model;
 
+import com.example.betaware.event.UsuarioEntityListener;
 import com.example.betaware.model.enums.Perfil;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,6 +22,7 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Table(name = "usuario")
+@EntityListeners(UsuarioEntityListener.class)
 public class Usuario implements UserDetails {
 
     @Id
@@ -55,6 +59,7 @@ public class Usuario implements UserDetails {
     private String email;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private Perfil perfil;
 
     @Override
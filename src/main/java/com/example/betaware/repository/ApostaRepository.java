@@ -1,16 +1,99 @@
 package com.example.betaware.repository;
 
+import com.example.betaware.dto.ApostaDTO;
 import com.example.betaware.model.Aposta;
-import com.example.betaware.model.Usuario;
+import com.example.betaware.model.enums.ResultadoAposta;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ApostaRepository extends JpaRepository<Aposta, Long> {
-    List<Aposta> findByUsuario(Usuario usuario);
-    List<Aposta> findByUsuarioAndDataBetween(Usuario usuario, LocalDateTime inicio, LocalDateTime fim);
-    List<Aposta> findByDataBetween(LocalDateTime inicio, LocalDateTime fim);
-} 
\ No newline at end of file
+
+    // projeção direta para o DTO, com o username vindo do join (sem hidratar entidades)
+    String PROJECAO_DTO = "select new com.example.betaware.dto.ApostaDTO(" +
+            "a.id, a.categoria, a.jogo, a.valorCentavos, a.resultado, a.data, u.username) " +
+            "from Aposta a join a.usuario u ";
+
+    @Query(PROJECAO_DTO + "where u.username = :username")
+    List<ApostaDTO> findDtoByUsername(@Param("username") String username);
+
+    @Query(PROJECAO_DTO + "where u.username = :username and a.data between :inicio and :fim")
+    List<ApostaDTO> findDtoByUsernameAndDataBetween(@Param("username") String username,
+                                                    @Param("inicio") LocalDateTime inicio,
+                                                    @Param("fim") LocalDateTime fim);
+
+    @Query(PROJECAO_DTO + "where a.data between :inicio and :fim order by a.data asc, a.id asc")
+    List<ApostaDTO> findDtoByDataBetween(@Param("inicio") LocalDateTime inicio,
+                                         @Param("fim") LocalDateTime fim,
+                                         Pageable pageable);
+
+    @Query(PROJECAO_DTO + "where u.username = :username order by a.data asc, a.id asc")
+    List<ApostaDTO> findDtoByUsernameOrdenado(@Param("username") String username, Pageable pageable);
+
+    // keyset: próxima página a partir do último (data, id) já entregue
+    @Query(PROJECAO_DTO + "where u.username = :username " +
+            "and (a.data > :data or (a.data = :data and a.id > :id)) " +
+            "order by a.data asc, a.id asc")
+    List<ApostaDTO> findDtoByUsernameAposCursor(@Param("username") String username,
+                                                @Param("data") LocalDateTime data,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    // liquidação: ids pendentes de um jogo, bloqueados até o fim da transação do lote
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.id from Aposta a where a.jogo = :jogo " +
+            "and a.resultado = com.example.betaware.model.enums.ResultadoAposta.PENDENTE " +
+            "and a.id > :aposId order by a.id asc")
+    List<Long> findIdsPendentesPorJogo(@Param("jogo") String jogo, @Param("aposId") Long aposId, Pageable pageable);
+
+    // quantidade e soma dos valores por (usuário, categoria), para atualizar as estatísticas
+    @Query("select a.usuario.id, a.categoria, count(a), sum(a.valorCentavos) from Aposta a " +
+            "where a.id in :ids group by a.usuario.id, a.categoria")
+    List<Object[]> somarPorUsuarioECategoria(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Aposta a set a.resultado = :resultado where a.id in :ids " +
+            "and a.resultado = com.example.betaware.model.enums.ResultadoAposta.PENDENTE")
+    int liquidar(@Param("ids") Collection<Long> ids, @Param("resultado") ResultadoAposta resultado);
+
+    @Query(PROJECAO_DTO + "where a.id in :ids")
+    List<ApostaDTO> findDtoByIdIn(@Param("ids") Collection<Long> ids);
+
+    // próximo valor da sequência, que reserva um bloco de 50 ids para a ingestão assíncrona
+    @Query(value = "SELECT NEXT VALUE FOR apostas_seq", nativeQuery = true)
+    long reservarBlocoIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(PROJECAO_DTO + "where u.username = :username order by a.data asc, a.id asc")
+    Stream<ApostaDTO> streamDtoByUsername(@Param("username") String username);
+
+    // intervalo semiaberto [inicio, fim), para que intervalos consecutivos não repitam apostas
+    @Query(PROJECAO_DTO + "where a.data >= :inicio and a.data < :fim order by a.data asc, a.id asc")
+    List<ApostaDTO> findDtoByDataIntervalo(@Param("inicio") LocalDateTime inicio,
+                                           @Param("fim") LocalDateTime fim,
+                                           Pageable pageable);
+
+    // keyset dentro do intervalo: próxima página a partir do último (data, id) já exportado
+    @Query(PROJECAO_DTO + "where a.data >= :inicio and a.data < :fim " +
+            "and (a.data > :data or (a.data = :data and a.id > :id)) " +
+            "order by a.data asc, a.id asc")
+    List<ApostaDTO> findDtoByDataIntervaloAposCursor(@Param("inicio") LocalDateTime inicio,
+                                                     @Param("fim") LocalDateTime fim,
+                                                     @Param("data") LocalDateTime data,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+}
@@ -0,0 +1,57 @@
+package com.example.betaware.repository;
+
+import com.example.betaware.model.EstatisticaAposta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EstatisticaApostaRepository extends JpaRepository<EstatisticaAposta, Long> {
+
+    @Query("select e from EstatisticaAposta e, Usuario u " +
+            "where u.id = e.usuarioId and u.username = :username order by e.categoria")
+    List<EstatisticaAposta> findByUsername(@Param("username") String username);
+
+    // soma o delta na linha (usuario, categoria), criando-a se ainda não existir, em um único comando
+    @Modifying
+    @Query(nativeQuery = true, value = "MERGE INTO estatisticas_apostas e " +
+            "USING (SELECT CAST(:usuarioId AS BIGINT) AS usuario_id, CAST(:categoria AS VARCHAR(100)) AS categoria) s " +
+            "ON (e.usuario_id = s.usuario_id AND e.categoria = s.categoria) " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "quantidade = e.quantidade + :quantidade, " +
+            "total_apostado_centavos = e.total_apostado_centavos + :totalApostado, " +
+            "quantidade_ganhou = e.quantidade_ganhou + :ganhou, " +
+            "quantidade_perdeu = e.quantidade_perdeu + :perdeu, " +
+            "quantidade_pendente = e.quantidade_pendente + :pendente, " +
+            "quantidade_cancelada = e.quantidade_cancelada + :cancelada, " +
+            "valor_ganho_centavos = e.valor_ganho_centavos + :valorGanho, " +
+            "valor_perdido_centavos = e.valor_perdido_centavos + :valorPerdido " +
+            "WHEN NOT MATCHED THEN INSERT (usuario_id, categoria, quantidade, total_apostado_centavos, " +
+            "quantidade_ganhou, quantidade_perdeu, quantidade_pendente, quantidade_cancelada, valor_ganho_centavos, valor_perdido_centavos) " +
+            "VALUES (s.usuario_id, s.categoria, :quantidade, :totalApostado, :ganhou, :perdeu, :pendente, :cancelada, " +
+            ":valorGanho, :valorPerdido)")
+    int somar(@Param("usuarioId") Long usuarioId,
+              @Param("categoria") String categoria,
+              @Param("quantidade") long quantidade,
+              @Param("totalApostado") long totalApostado,
+              @Param("ganhou") long ganhou,
+              @Param("perdeu") long perdeu,
+              @Param("pendente") long pendente,
+              @Param("cancelada") long cancelada,
+              @Param("valorGanho") long valorGanho,
+              @Param("valorPerdido") long valorPerdido);
+
+    @Query("select new com.example.betaware.model.EstatisticaAposta(a.usuario.id, a.categoria, count(a), sum(a.valorCentavos), " +
+            "sum(case when a.resultado = com.example.betaware.model.enums.ResultadoAposta.GANHOU then 1L else 0L end), " +
+            "sum(case when a.resultado = com.example.betaware.model.enums.ResultadoAposta.PERDEU then 1L else 0L end), " +
+            "sum(case when a.resultado = com.example.betaware.model.enums.ResultadoAposta.PENDENTE then 1L else 0L end), " +
+            "sum(case when a.resultado = com.example.betaware.model.enums.ResultadoAposta.CANCELADA then 1L else 0L end), " +
+            "sum(case when a.resultado = com.example.betaware.model.enums.ResultadoAposta.GANHOU then a.valorCentavos else 0L end), " +
+            "sum(case when a.resultado = com.example.betaware.model.enums.ResultadoAposta.PERDEU then a.valorCentavos else 0L end)) " +
+            "from Aposta a group by a.usuario.id, a.categoria")
+    List<EstatisticaAposta> calcularAPartirDasApostas();
+}
@@ -1,17 +1,45 @@
 package com.example.betaware.repository;
 
+import com.example.betaware.config.CacheConfig;
 import com.example.betaware.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+    // cacheados (ver CacheConfig); invalidados pelo UsuarioAlteradoEvent
+    @Cacheable(cacheNames = CacheConfig.USUARIOS_POR_USERNAME, unless = "#result == null")
     Optional<Usuario> findByUsername(String username);
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USUARIOS_POR_ID, unless = "#result == null")
+    Optional<Usuario> findById(Long id);
+
     Optional<Usuario> findByEmail(String email);
     Optional<Usuario> findByCpf(String cpf);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByCpf(String cpf);
-} 
\ No newline at end of file
+
+    // verifica os três campos únicos em uma única ida ao banco; retorna os nomes dos campos já em uso
+    @Query("select 'username' from Usuario u where u.username = :username " +
+            "union all select 'email' from Usuario u where u.email = :email " +
+            "union all select 'cpf' from Usuario u where u.cpf = :cpf")
+    List<String> findCamposEmUso(@Param("username") String username,
+                                 @Param("email") String email,
+                                 @Param("cpf") String cpf);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username, u.email, u.cpf from Usuario u")
+    Stream<Object[]> streamChaves();
+}
@@ -0,0 +1,76 @@
+package com.example.betaware.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets em memória. Cada bucket é um estado imutável trocado por compare-and-set, então
+ * requisições concorrentes da mesma chave não bloqueiam umas às outras, e chaves diferentes ficam em
+ * segmentos distintos do {@link ConcurrentHashMap}.
+ */
+@Component
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final long NANOS_POR_MINUTO = TimeUnit.MINUTES.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+    private final long idleNanos;
+    private final LongSupplier relogio;
+
+    @Autowired
+    public InMemoryRateLimitStore(@Value("${app.rate-limit.idle-minutes:10}") long idleMinutes) {
+        this(idleMinutes, System::nanoTime);
+    }
+
+    // relógio em nanos, substituível nos testes
+    InMemoryRateLimitStore(long idleMinutes, LongSupplier relogio) {
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        this.relogio = relogio;
+    }
+
+    @Override
+    public long tryConsume(String key, long capacity, long refillPerMinute) {
+        AtomicReference<Bucket> ref = buckets.computeIfAbsent(key,
+                k -> new AtomicReference<>(new Bucket(capacity * NANOS_POR_MINUTO, relogio.getAsLong())));
+        // fichas guardadas em "nanos de recarga" (ficha * minuto) para evitar ponto flutuante
+        long custo = NANOS_POR_MINUTO;
+        long maximo = capacity * NANOS_POR_MINUTO;
+
+        while (true) {
+            Bucket atual = ref.get();
+            long agora = relogio.getAsLong();
+            long recarga = saturatedMultiply(Math.max(0, agora - atual.lastRefillNanos()), refillPerMinute);
+            long saldo = recarga >= maximo - atual.saldo() ? maximo : atual.saldo() + recarga;
+
+            if (saldo < custo) {
+                return refillPerMinute == 0 ? Long.MAX_VALUE : (custo - saldo + refillPerMinute - 1) / refillPerMinute;
+            }
+            if (ref.compareAndSet(atual, new Bucket(saldo - custo, agora))) {
+                return 0;
+            }
+        }
+    }
+
+    // descarta buckets sem uso recente; um bucket removido volta cheio, o que equivale a ter recarregado
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-interval-ms:60000}")
+    public void removerInativos() {
+        long limite = relogio.getAsLong() - idleNanos;
+        buckets.values().removeIf(ref -> ref.get().lastRefillNanos() - limite < 0);
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return (high == 0 && low >= 0) ? low : Long.MAX_VALUE;
+    }
+
+    private record Bucket(long saldo, long lastRefillNanos) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.betaware.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revogações em memória. A consulta é um {@code get} no índice por id; as entradas também ficam em
+ * baldes por minuto de expiração, de modo que a limpeza descarta baldes inteiros já vencidos sem
+ * percorrer as revogações ainda válidas. A memória fica limitada às revogações dos últimos
+ * {@code app.jwt.refresh.expiration}.
+ *
+ * <p>Com {@code app.jwt.revogacao.arquivo}, cada revogação é acrescentada ao arquivo
+ * ({@code <expiraEmMillis> <id>} por linha) e recarregada na inicialização; a limpeza reescreve o
+ * arquivo só com as entradas vigentes. Todo acesso ao arquivo é feito por uma única thread: a
+ * requisição só atualiza a memória e enfileira a linha, sem esperar o disco. Uma queda do processo
+ * pode perder as últimas revogações ainda na fila; um encerramento normal grava todas.
+ */
+@Slf4j
+@Component
+public class InMemoryRevocationStore implements RevocationStore {
+
+    private static final long BALDE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final ConcurrentHashMap<String, Long> revogados = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Set<String>> baldes = new ConcurrentSkipListMap<>();
+
+    @Value("${app.jwt.revogacao.arquivo:}")
+    private String arquivo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // só usados pela thread do arquivo (e pela inicialização, antes de ela existir)
+    private BufferedWriter escritor;
+    private ExecutorService threadArquivo;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (StringUtils.hasText(arquivo)) {
+            Path caminho = Path.of(arquivo);
+            if (Files.exists(caminho)) {
+                carregar(caminho);
+            }
+            reescrever();
+            CustomizableThreadFactory fabrica = new CustomizableThreadFactory("revogacoes-arquivo-");
+            fabrica.setDaemon(true);
+            threadArquivo = Executors.newSingleThreadExecutor(fabrica);
+        }
+        Gauge.builder("betaware.jwt.revogados", revogados, Map::size)
+                .description("Tokens e sessões revogados ainda não expirados")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean revogar(String id, long expiraEmMillis) {
+        if (expiraEmMillis <= System.currentTimeMillis()) {
+            return !revogados.containsKey(id);
+        }
+        if (revogados.putIfAbsent(id, expiraEmMillis) != null) {
+            return false;
+        }
+        baldes.computeIfAbsent(expiraEmMillis / BALDE_MILLIS, b -> ConcurrentHashMap.newKeySet()).add(id);
+        gravar(id, expiraEmMillis);
+        return true;
+    }
+
+    @Override
+    public boolean revogado(String id) {
+        return id != null && revogados.containsKey(id);
+    }
+
+    public int size() {
+        return revogados.size();
+    }
+
+    // os baldes anteriores ao minuto atual só têm entradas já expiradas
+    @Scheduled(fixedDelayString = "${app.jwt.revogacao.limpeza:PT1M}")
+    public void removerExpirados() {
+        Map<Long, Set<String>> vencidos = baldes.headMap(System.currentTimeMillis() / BALDE_MILLIS);
+        if (vencidos.isEmpty()) {
+            return;
+        }
+        Iterator<Set<String>> it = vencidos.values().iterator();
+        while (it.hasNext()) {
+            it.next().forEach(revogados::remove);
+            it.remove();
+        }
+        compactar();
+    }
+
+    @PreDestroy
+    public void encerrar() throws IOException {
+        if (threadArquivo == null) {
+            return;
+        }
+        // grava o que ainda estiver na fila antes de fechar o arquivo
+        threadArquivo.shutdown();
+        try {
+            if (!threadArquivo.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.error("Revogações pendentes não foram gravadas em {}", arquivo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (escritor != null) {
+            escritor.close();
+            escritor = null;
+        }
+    }
+
+    private void gravar(String id, long expiraEmMillis) {
+        noArquivo(() -> {
+            if (escritor == null) {
+                return;
+            }
+            try {
+                escritor.write(expiraEmMillis + " " + id);
+                escritor.newLine();
+                escritor.flush();
+            } catch (IOException e) {
+                // a revogação continua valendo em memória; só não sobrevive a um reinício
+                log.error("Não foi possível gravar a revogação em {}", arquivo, e);
+            }
+        });
+    }
+
+    private void compactar() {
+        noArquivo(this::reescrever);
+    }
+
+    private void noArquivo(Runnable tarefa) {
+        if (threadArquivo == null) {
+            return;
+        }
+        try {
+            threadArquivo.execute(tarefa);
+        } catch (RejectedExecutionException e) {
+            // encerrando: a revogação vale em memória até o fim do processo
+            log.warn("Revogação não gravada em {}: armazenamento encerrado", arquivo);
+        }
+    }
+
+    private void carregar(Path caminho) throws IOException {
+        long agora = System.currentTimeMillis();
+        for (String linha : Files.readAllLines(caminho, StandardCharsets.UTF_8)) {
+            int espaco = linha.indexOf(' ');
+            if (espaco <= 0) {
+                continue;
+            }
+            long expiraEm = Long.parseLong(linha, 0, espaco, 10);
+            String id = linha.substring(espaco + 1);
+            if (expiraEm > agora && revogados.putIfAbsent(id, expiraEm) == null) {
+                baldes.computeIfAbsent(expiraEm / BALDE_MILLIS, b -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+        log.info("{} revogações carregadas de {}", revogados.size(), caminho);
+    }
+
+    // reescreve o arquivo com as entradas vigentes e troca o original atomicamente
+    private void reescrever() {
+        Path caminho = Path.of(arquivo);
+        Path temporario = caminho.resolveSibling(caminho.getFileName() + ".tmp");
+        try {
+            if (caminho.getParent() != null) {
+                Files.createDirectories(caminho.getParent());
+            }
+            List<String> linhas = revogados.entrySet().stream()
+                    .map(e -> e.getValue() + " " + e.getKey())
+                    .toList();
+            Files.write(temporario, linhas, StandardCharsets.UTF_8);
+            if (escritor != null) {
+                escritor.close();
+            }
+            Files.move(temporario, caminho, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            abrir(caminho);
+        } catch (IOException e) {
+            log.error("Não foi possível compactar o arquivo de revogações {}", arquivo, e);
+        }
+    }
+
+    private void abrir(Path caminho) throws IOException {
+        escritor = Files.newBufferedWriter(caminho, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.betaware.security;
 
+import com.example.betaware.model.Usuario;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,11 +14,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.CharBuffer;
 
+@Slf4j
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -25,16 +29,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private RevocationStore revocationStore;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String jwt = getJwtFromRequest(request);
+            CharSequence jwt = getJwtFromRequest(request);
+
+            UserDetails userDetails = jwt != null ? resolvePrincipal(jwt) : null;
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -42,16 +51,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception ex) {
-            logger.error("Não foi possível definir a autenticação do usuário no contexto de segurança", ex);
+            log.error("Não foi possível definir a autenticação do usuário no contexto de segurança", ex);
         }
 
         filterChain.doFilter(request, response);
     }
 
-    private String getJwtFromRequest(HttpServletRequest request) {
+    private UserDetails resolvePrincipal(CharSequence jwt) {
+        JwtTokenCache.CachedToken cached = tokenCache.get(jwt);
+        if (cached != null) {
+            return revogado(cached.claims()) ? null : cached.principal();
+        }
+
+        // assinatura e expiração verificadas uma única vez por token
+        JwtTokenProvider.Resultado resultado = tokenProvider.parse(jwt);
+        if (!resultado.valido() || JwtTokenProvider.isRefreshToken(resultado.claims()) || revogado(resultado.claims())) {
+            return null;
+        }
+        long versao = tokenCache.version();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(resultado.claims().getSubject());
+        Long usuarioId = userDetails instanceof Usuario usuario ? usuario.getId() : null;
+        return tokenCache.put(jwt, resultado.claims(), userDetails, usuarioId, versao).principal();
+    }
+
+    // consultado a cada requisição, inclusive com o token em cache: a revogação vale imediatamente
+    private boolean revogado(Claims claims) {
+        return revocationStore.revogado(claims.getId())
+                || revocationStore.revogado(claims.get(JwtTokenProvider.CLAIM_SESSAO, String.class));
+    }
+
+    // uma visão do cabeçalho após "Bearer ", sem copiar o token
+    private CharSequence getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+        if (bearerToken != null && bearerToken.length() > 7 && bearerToken.startsWith("Bearer ")) {
+            return CharBuffer.wrap(bearerToken, 7, bearerToken.length());
         }
         return null;
     }
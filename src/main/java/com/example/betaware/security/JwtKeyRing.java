@@ -0,0 +1,401 @@
+package com.example.betaware.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Chaves assimétricas (ES256 ou RS256) usadas para assinar e verificar os tokens. Cada chave tem um
+ * {@code kid}; o token é assinado com a chave mais nova já publicada e verificado pela chave do seu
+ * {@code kid}, então várias chaves ficam ativas ao mesmo tempo durante a rotação.
+ *
+ * <p>O estado fica num snapshot imutável ({@link Anel}) trocado atomicamente: as chaves públicas já
+ * decodificadas, a chave de assinatura e o JWKS já serializado. Uma chave nova só passa a assinar
+ * depois de ficar publicada por {@code app.jwt.jwks.max-age}, tempo em que verificadores externos
+ * com o JWKS em cache já a terão buscado. Uma chave aposentada continua no JWKS até o último token
+ * assinado com ela expirar.
+ *
+ * <p>Com {@code app.jwt.chaves.diretorio} as chaves são gravadas em disco e compartilhadas pelas
+ * instâncias que apontam para o mesmo diretório. O diretório e as chaves privadas são criados só com
+ * permissão para o dono, e o instante de criação de cada chave fica dentro do arquivo (uma cópia ou
+ * restauração de backup muda a data do arquivo, mas não a rotação). Sem diretório, as chaves ficam só
+ * em memória e são recriadas a cada inicialização, o que invalida todos os tokens emitidos, inclusive
+ * os refresh tokens; {@code app.jwt.chaves.diretorio-obrigatorio} (ligado no profile prod) impede a
+ * inicialização nesse caso.
+ *
+ * <p>Tokens HS256 sem {@code kid} (emitidos antes das chaves assimétricas) só são aceitos com
+ * {@code app.jwt.secret} definido e até o instante {@code app.jwt.legado.ate}; sem os dois, o
+ * padrão, são recusados. Esses tokens não têm {@code jti} nem sessão e não podem ser revogados, por
+ * isso a janela deve ser fechada assim que o último deles expirar.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private static final String EXTENSAO_PRIVADA = ".privada";
+    private static final String EXTENSAO_PUBLICA = ".publica";
+    private static final String PREFIXO_CRIACAO = "criada-em=";
+
+    @Value("${app.jwt.algoritmo:ES256}")
+    private String algoritmo;
+
+    @Value("${app.jwt.chaves.diretorio:}")
+    private String diretorio;
+
+    @Value("${app.jwt.chaves.diretorio-obrigatorio:false}")
+    private boolean diretorioObrigatorio;
+
+    @Value("${app.jwt.chaves.rotacao:P7D}")
+    private Duration rotacao;
+
+    @Value("${app.jwt.jwks.max-age:PT5M}")
+    private Duration maxAgeJwks;
+
+    @Value("${app.jwt.expiration}")
+    private long jwtExpirationInMs;
+
+    @Value("${app.jwt.refresh.expiration:1209600000}")
+    private long refreshExpirationInMs;
+
+    @Value("${app.jwt.secret:}")
+    private String segredoLegado;
+
+    // instante ISO-8601 até o qual tokens HS256 antigos são aceitos (vazio = nunca)
+    @Value("${app.jwt.legado.ate:}")
+    private String legadoAte;
+
+    private Key chaveLegada;
+    private Instant fimLegado;
+
+    // chaves completas quando não há diretório; só é acessado dentro de atualizar()
+    private final Map<String, Chave> chavesEmMemoria = new HashMap<>();
+
+    private volatile Anel anel;
+
+    public record Chave(String kid, PrivateKey privada, PublicKey publica, Instant criadaEm) {
+    }
+
+    /**
+     * @param assinatura chave usada nos tokens novos
+     * @param verificacao chaves públicas por {@code kid}, incluindo as que ainda não assinam
+     * @param jwks documento JWKS pronto para ser servido
+     * @param etag hash do JWKS, para GETs condicionais
+     */
+    public record Anel(Chave assinatura, Map<String, PublicKey> verificacao, String jwks, String etag) {
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!StringUtils.hasText(diretorio)) {
+            if (diretorioObrigatorio) {
+                throw new IllegalStateException("app.jwt.chaves.diretorio é obrigatório neste ambiente");
+            }
+            log.warn("app.jwt.chaves.diretorio não definido: as chaves JWT ficam só em memória. Cada "
+                    + "reinício invalida todos os access e refresh tokens, e instâncias diferentes não "
+                    + "aceitam os tokens umas das outras");
+        }
+        iniciarLegado();
+        atualizar();
+    }
+
+    public Chave chaveAssinatura() {
+        return anel.assinatura();
+    }
+
+    public Anel anel() {
+        return anel;
+    }
+
+    /**
+     * Recarrega as chaves do diretório (outra instância pode ter rodado a rotação), cria uma chave
+     * nova quando a mais recente tiver mais de {@code app.jwt.chaves.rotacao} e descarta as que não
+     * podem mais ter tokens válidos.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.chaves.verificacao:PT10M}", initialDelayString = "${app.jwt.chaves.verificacao:PT10M}")
+    public synchronized void atualizar() {
+        Instant agora = Instant.now();
+        List<Chave> chaves = new ArrayList<>(StringUtils.hasText(diretorio) ? carregar() : chavesEmMemoria.values());
+
+        Chave maisNova = chaves.stream().max(Comparator.comparing(Chave::criadaEm)).orElse(null);
+        if (maisNova == null || maisNova.criadaEm().plus(rotacao).isBefore(agora)) {
+            Chave nova = gerar(agora);
+            salvar(nova);
+            chaves.add(nova);
+            log.info("Nova chave JWT {} ({})", nova.kid(), algoritmo);
+        }
+
+        // uma chave deixa de assinar quando surge a seguinte; seus tokens (inclusive refresh) duram no máximo mais um TTL
+        Duration retencao = rotacao.plus(maxAgeJwks).plusMillis(Math.max(jwtExpirationInMs, refreshExpirationInMs));
+        chaves.removeIf(chave -> {
+            boolean expirada = chave.criadaEm().plus(retencao).isBefore(agora);
+            if (expirada) {
+                remover(chave);
+            }
+            return expirada;
+        });
+        chaves.sort(Comparator.comparing(Chave::criadaEm));
+
+        Chave assinatura = chaves.get(0);
+        for (Chave chave : chaves) {
+            if (!chave.criadaEm().plus(maxAgeJwks).isAfter(agora)) {
+                assinatura = chave;
+            }
+        }
+        if (anel == null) {
+            // na primeira carga não há verificadores com JWKS em cache para esperar
+            assinatura = chaves.get(chaves.size() - 1);
+        } else if (assinatura.criadaEm().isBefore(anel.assinatura().criadaEm())) {
+            assinatura = anel.assinatura();
+        }
+        anel = montarAnel(assinatura, chaves);
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (chaveLegada != null && header.getAlgorithm() != null && header.getAlgorithm().startsWith("HS")
+                    && Instant.now().isBefore(fimLegado)) {
+                return chaveLegada;
+            }
+            throw new SignatureException("Token sem kid");
+        }
+        PublicKey chave = anel.verificacao().get(kid);
+        if (chave == null) {
+            throw new SignatureException("Chave de assinatura desconhecida: " + kid);
+        }
+        return chave;
+    }
+
+    private void iniciarLegado() {
+        if (!StringUtils.hasText(legadoAte)) {
+            if (StringUtils.hasText(segredoLegado)) {
+                log.info("app.jwt.secret definido sem app.jwt.legado.ate: tokens HS256 antigos são recusados");
+            }
+            return;
+        }
+        if (!StringUtils.hasText(segredoLegado)) {
+            throw new IllegalStateException("app.jwt.legado.ate exige app.jwt.secret");
+        }
+        fimLegado = Instant.parse(legadoAte);
+        if (!fimLegado.isAfter(Instant.now())) {
+            log.info("Janela de tokens HS256 antigos encerrada em {}", fimLegado);
+            return;
+        }
+        chaveLegada = Keys.hmacShaKeyFor(segredoLegado.getBytes(StandardCharsets.UTF_8));
+        log.warn("Tokens HS256 sem kid aceitos até {} (app.jwt.legado.ate); eles não podem ser revogados. "
+                + "Remova app.jwt.secret e app.jwt.legado.ate depois desse instante", fimLegado);
+    }
+
+    private Chave gerar(Instant agora) {
+        try {
+            KeyPairGenerator gerador;
+            if ("RS256".equals(algoritmo)) {
+                gerador = KeyPairGenerator.getInstance("RSA");
+                gerador.initialize(2048);
+            } else if ("ES256".equals(algoritmo)) {
+                gerador = KeyPairGenerator.getInstance("EC");
+                gerador.initialize(new ECGenParameterSpec("secp256r1"));
+            } else {
+                throw new IllegalStateException("app.jwt.algoritmo deve ser ES256 ou RS256: " + algoritmo);
+            }
+            KeyPair par = gerador.generateKeyPair();
+            String kid = Long.toString(agora.getEpochSecond(), 36) + "-" + UUID.randomUUID().toString().substring(0, 8);
+            Chave chave = new Chave(kid, par.getPrivate(), par.getPublic(), agora);
+            if (!StringUtils.hasText(diretorio)) {
+                chavesEmMemoria.put(kid, chave);
+            }
+            return chave;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível gerar a chave JWT", e);
+        }
+    }
+
+    private List<Chave> carregar() {
+        if (!StringUtils.hasText(diretorio)) {
+            return List.of();
+        }
+        Path pasta = Path.of(diretorio);
+        if (!Files.isDirectory(pasta)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            List<Chave> chaves = new ArrayList<>();
+            for (Path privada : arquivos.filter(p -> p.toString().endsWith(EXTENSAO_PRIVADA)).toList()) {
+                String nome = privada.getFileName().toString();
+                String kid = nome.substring(0, nome.length() - EXTENSAO_PRIVADA.length());
+                Path publica = pasta.resolve(kid + EXTENSAO_PUBLICA);
+                if (Files.exists(publica)) {
+                    chaves.add(ler(kid, privada, publica));
+                }
+            }
+            return chaves;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler as chaves JWT de " + diretorio, e);
+        }
+    }
+
+    private Chave ler(String kid, Path privada, Path publica) throws IOException {
+        try {
+            KeyFactory fabrica = KeyFactory.getInstance("RS256".equals(algoritmo) ? "RSA" : "EC");
+            List<String> linhas = Files.readAllLines(privada, StandardCharsets.UTF_8);
+            // arquivos gravados antes do instante de criação no conteúdo: usa a data do arquivo
+            Instant criadaEm = linhas.get(0).startsWith(PREFIXO_CRIACAO)
+                    ? Instant.parse(linhas.get(0).substring(PREFIXO_CRIACAO.length()))
+                    : Files.getLastModifiedTime(privada).toInstant();
+            PrivateKey chavePrivada = fabrica.generatePrivate(new PKCS8EncodedKeySpec(
+                    Base64.getDecoder().decode(linhas.get(linhas.size() - 1).trim())));
+            PublicKey chavePublica = fabrica.generatePublic(new X509EncodedKeySpec(
+                    Base64.getDecoder().decode(Files.readString(publica, StandardCharsets.UTF_8).trim())));
+            return new Chave(kid, chavePrivada, chavePublica, criadaEm);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            throw new IllegalStateException("Chave JWT inválida: " + kid, e);
+        }
+    }
+
+    private void salvar(Chave chave) {
+        if (!StringUtils.hasText(diretorio)) {
+            return;
+        }
+        try {
+            Path pasta = Path.of(diretorio);
+            if (!Files.isDirectory(pasta)) {
+                Files.createDirectories(pasta, permissoes("rwx------"));
+            }
+            // a pública primeiro: a chave só é considerada quando o arquivo privado aparece
+            gravar(pasta, chave.kid() + EXTENSAO_PUBLICA,
+                    Base64.getEncoder().encodeToString(chave.publica().getEncoded()));
+            gravar(pasta, chave.kid() + EXTENSAO_PRIVADA, PREFIXO_CRIACAO + chave.criadaEm() + "\n"
+                    + Base64.getEncoder().encodeToString(chave.privada().getEncoded()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar a chave JWT em " + diretorio, e);
+        }
+    }
+
+    // cria o arquivo já só com permissão para o dono e o move para o nome final quando completo
+    private static void gravar(Path pasta, String nome, String conteudo) throws IOException {
+        Path temporario = Files.createTempFile(pasta, nome, ".tmp", permissoes("rw-------"));
+        try {
+            Files.writeString(temporario, conteudo, StandardCharsets.UTF_8);
+            Files.move(temporario, pasta.resolve(nome), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    private static FileAttribute<?>[] permissoes(String permissoes) {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissoes))};
+    }
+
+    private void remover(Chave chave) {
+        chavesEmMemoria.remove(chave.kid());
+        if (!StringUtils.hasText(diretorio)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Path.of(diretorio, chave.kid() + EXTENSAO_PRIVADA));
+            Files.deleteIfExists(Path.of(diretorio, chave.kid() + EXTENSAO_PUBLICA));
+        } catch (IOException e) {
+            log.warn("Não foi possível remover a chave JWT {}: {}", chave.kid(), e.getMessage());
+        }
+    }
+
+    private Anel montarAnel(Chave assinatura, List<Chave> chaves) {
+        Map<String, PublicKey> verificacao = new HashMap<>();
+        List<Map<String, String>> jwks = new ArrayList<>();
+        for (Chave chave : chaves) {
+            verificacao.put(chave.kid(), chave.publica());
+            jwks.add(jwk(chave));
+        }
+        try {
+            String json = new ObjectMapper().writeValueAsString(Map.of("keys", jwks));
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 12)) + "\"";
+            return new Anel(assinatura, Map.copyOf(verificacao), json, etag);
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível montar o JWKS", e);
+        }
+    }
+
+    private Map<String, String> jwk(Chave chave) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        if (chave.publica() instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ec.getW().getAffineX(), 32));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), 32));
+            jwk.put("alg", "ES256");
+        } else {
+            RSAPublicKey rsa = (RSAPublicKey) chave.publica();
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+            jwk.put("alg", "RS256");
+        }
+        jwk.put("use", "sig");
+        jwk.put("kid", chave.kid());
+        return jwk;
+    }
+
+    // inteiro sem sinal em big-endian, completado com zeros à esquerda até {@code tamanho} bytes
+    private static String base64Url(BigInteger valor, int tamanho) {
+        byte[] bytes = valor.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < tamanho) {
+            byte[] completo = new byte[tamanho];
+            System.arraycopy(bytes, 0, completo, tamanho - bytes.length, bytes.length);
+            bytes = completo;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
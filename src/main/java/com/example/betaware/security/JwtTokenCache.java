@@ -0,0 +1,199 @@
+package com.example.betaware.security;
+
+import com.example.betaware.event.UsuarioAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitado (Caffeine) de tokens JWT já verificados. A chave é o SHA-256 do token, o valor guarda
+ * as claims, o id e um snapshot leve do usuário, de modo que requisições seguintes com o mesmo token não
+ * precisam verificar a assinatura nem consultar o banco. Cada entrada expira junto com o token.
+ *
+ * <p>A invalidação é pelo id do usuário, que não muda quando o username muda. Para que uma carga
+ * concorrente não recoloque o usuário antigo no cache, quem vai carregar o usuário pega antes a
+ * {@link #version()} e a entrega ao {@link #put}: se o usuário foi invalidado depois disso, a entrada
+ * não fica no cache.
+ */
+@Component
+public class JwtTokenCache {
+
+    // por quanto tempo a invalidação de um usuário é lembrada; basta cobrir uma carga em andamento
+    private static final Duration MEMORIA_INVALIDACAO = Duration.ofMinutes(5);
+
+    private static final ThreadLocal<Hasher> HASHERS = ThreadLocal.withInitial(Hasher::new);
+
+    @Value("${app.jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    private final AtomicLong versoes = new AtomicLong();
+    private Cache<String, CachedToken> entries;
+    // id do usuário -> versão da última invalidação
+    private Cache<Long, Long> invalidacoes;
+
+    public record CachedToken(Claims claims, UserDetails principal, Long userId, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpiraComOToken())
+                .build();
+        invalidacoes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(MEMORIA_INVALIDACAO)
+                .build();
+    }
+
+    public CachedToken get(CharSequence token) {
+        return entries.getIfPresent(hash(token));
+    }
+
+    /**
+     * Versão a ser lida antes de carregar o usuário e passada ao {@link #put}.
+     */
+    public long version() {
+        return versoes.get();
+    }
+
+    /**
+     * Guarda o token, a menos que o usuário tenha sido invalidado depois de {@code version}. Sem
+     * {@code userId} não há como invalidar a entrada, então ela não é guardada.
+     */
+    public CachedToken put(CharSequence token, Claims claims, UserDetails userDetails, Long userId, long version) {
+        UserDetails snapshot = User.withUsername(userDetails.getUsername())
+                .password("")
+                .authorities(userDetails.getAuthorities())
+                .build();
+        CachedToken cached = new CachedToken(claims, snapshot, userId, claims.getExpiration().getTime());
+        if (userId == null) {
+            return cached;
+        }
+
+        String key = hash(token);
+        entries.put(key, cached);
+        // a invalidação marca a versão antes de remover: ou ela já viu esta entrada, ou a versão é vista aqui
+        Long invalidadoEm = invalidacoes.getIfPresent(userId);
+        if (invalidadoEm != null && invalidadoEm > version) {
+            entries.asMap().remove(key, cached);
+        }
+        return cached;
+    }
+
+    public void invalidateUser(Long userId) {
+        invalidacoes.put(userId, versoes.incrementAndGet());
+        entries.asMap().values().removeIf(cached -> userId.equals(cached.userId()));
+    }
+
+    /**
+     * A invalidação é repetida após o commit, como em {@code CacheConfig}: uma carga que leu o usuário
+     * antigo entre o evento e o commit também é descartada.
+     */
+    @EventListener
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        if (event.tipo() == UsuarioAlteradoEvent.Tipo.CRIADO) {
+            return;
+        }
+        invalidateUser(event.id());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateUser(event.id());
+                }
+            });
+        }
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private static final class ExpiraComOToken implements Expiry<String, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken cached, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, cached.expiresAtMillis() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken cached, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, cached, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken cached, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static String hash(CharSequence token) {
+        return HASHERS.get().hash(token);
+    }
+
+    /**
+     * SHA-256 do token em UTF-8, sem copiar o token para um byte[]: os chars são codificados em blocos
+     * num buffer reaproveitado por thread e entregues ao digest de uma vez. Um header com caracteres
+     * fora do ASCII (token inválido) também tem hash próprio, em vez de colidir com outro token.
+     */
+    private static final class Hasher {
+
+        private final MessageDigest digest;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        Hasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponível", e);
+            }
+        }
+
+        String hash(CharSequence token) {
+            CharBuffer chars = token instanceof CharBuffer original ? original.duplicate() : CharBuffer.wrap(token);
+            encoder.reset();
+            CoderResult resultado;
+            do {
+                resultado = encoder.encode(chars, buffer, true);
+                descarregar();
+            } while (resultado.isOverflow());
+            while (encoder.flush(buffer).isOverflow()) {
+                descarregar();
+            }
+            descarregar();
+            return new String(digest.digest(), StandardCharsets.ISO_8859_1);
+        }
+
+        private void descarregar() {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+    }
+}
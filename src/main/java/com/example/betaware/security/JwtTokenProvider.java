@@ -1,64 +1,166 @@
 package com.example.betaware.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    // sessão (login) à qual o token pertence; revogá-la invalida o access e o refresh token
+    public static final String CLAIM_SESSAO = "sid";
+    public static final String CLAIM_TIPO = "typ";
+    public static final String TIPO_REFRESH = "refresh";
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
 
     @Value("${app.jwt.expiration}")
     private long jwtExpirationInMs;
 
-    private Key key;
+    @Value("${app.jwt.refresh.expiration:1209600000}")
+    private long refreshExpirationInMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // imutável e thread-safe; as chaves vêm do anel a cada token, então a rotação não exige recriá-lo
+    private JwtParser parser;
+
+    private final Map<Falha, Counter> falhas = new EnumMap<>(Falha.class);
+
+    // um token inválido repetido por um cliente não deve gerar uma linha de log por requisição
+    private final LogSampler invalidTokenLog = new LogSampler(1, TimeUnit.SECONDS);
+
+    public enum Falha {
+        EXPIRADO("expirado"),
+        ASSINATURA("assinatura"),
+        MALFORMADO("malformado"),
+        OUTRO("outro");
+
+        private final String motivo;
+
+        Falha(String motivo) {
+            this.motivo = motivo;
+        }
+    }
+
+    /**
+     * Resultado da verificação de um token: as claims, se válido, ou o motivo da falha.
+     */
+    public record Resultado(Claims claims, Falha falha) {
+
+        public boolean valido() {
+            return claims != null;
+        }
+    }
 
     @PostConstruct
     public void init() {
-        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().keyLocator(keyRing).build();
+        for (Falha falha : Falha.values()) {
+            falhas.put(falha, meterRegistry.counter("betaware.jwt.validacao.falhas", "motivo", falha.motivo));
+        }
     }
 
+    // access token de uma sessão nova, sem refresh token
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return generateToken(userDetails.getUsername(), novaSessao());
+    }
+
+    public String generateToken(String username, String sessao) {
+        return gerar(username, sessao, jwtExpirationInMs).compact();
+    }
+
+    public String generateRefreshToken(String username, String sessao) {
+        return gerar(username, sessao, refreshExpirationInMs).claim(CLAIM_TIPO, TIPO_REFRESH).compact();
+    }
+
+    public String novaSessao() {
+        return novoId();
+    }
+
+    public long getJwtExpirationInMs() {
+        return jwtExpirationInMs;
+    }
+
+    public long getRefreshExpirationInMs() {
+        return refreshExpirationInMs;
+    }
+
+    public static boolean isRefreshToken(Claims claims) {
+        return TIPO_REFRESH.equals(claims.get(CLAIM_TIPO));
+    }
+
+    private JwtBuilder gerar(String username, String sessao, long validadeMs) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
+        Date expiryDate = new Date(now.getTime() + validadeMs);
+        JwtKeyRing.Chave chave = keyRing.chaveAssinatura();
 
         return Jwts.builder()
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key)
-                .compact();
+                .header().keyId(chave.kid()).and()
+                .id(novoId())
+                .subject(username)
+                .claim(CLAIM_SESSAO, sessao)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(chave.privada());
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+    // 128 bits aleatórios em base64url (22 caracteres)
+    private static String novoId() {
+        byte[] bytes = new byte[16];
+        ALEATORIO.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifica a assinatura e a expiração uma única vez. Aceita qualquer {@link CharSequence}, para
+     * que o token possa ser lido direto do cabeçalho sem cópia.
+     */
+    public Resultado parse(CharSequence token) {
         try {
-            Jwts.parser().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return new Resultado(parser.parseSignedClaims(token).getPayload(), null);
         } catch (JwtException | IllegalArgumentException e) {
-            System.out.println(("Token JWT inválido: {}" + e.getMessage()));
-            return false;
+            Falha falha = falha(e);
+            falhas.get(falha).increment();
+            if (invalidTokenLog.tryAcquire()) {
+                log.warn("Token JWT inválido ({}): {} [{} ocorrência(s) omitida(s) no último intervalo]",
+                        falha.motivo, e.getMessage(), invalidTokenLog.drainSuppressed());
+            }
+            return new Resultado(null, falha);
+        }
+    }
+
+    private static Falha falha(Exception e) {
+        if (e instanceof ExpiredJwtException) {
+            return Falha.EXPIRADO;
+        }
+        if (e instanceof SignatureException) {
+            return Falha.ASSINATURA;
+        }
+        if (e instanceof MalformedJwtException || e instanceof UnsupportedJwtException) {
+            return Falha.MALFORMADO;
         }
+        return Falha.OUTRO;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.example.betaware.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita uma mensagem de log repetitiva a uma linha por intervalo. As chamadas no meio do intervalo
+ * só são contadas, e o total é informado na próxima linha registrada.
+ */
+final class LogSampler {
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowed = new AtomicLong(System.nanoTime());
+    private final AtomicLong suppressed = new AtomicLong();
+
+    LogSampler(long interval, TimeUnit unit) {
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * @return {@code true} se a mensagem deve ser registrada agora
+     */
+    boolean tryAcquire() {
+        long now = System.nanoTime();
+        long next = nextAllowed.get();
+        if (now - next >= 0 && nextAllowed.compareAndSet(next, now + intervalNanos)) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Quantidade de chamadas omitidas desde a última linha registrada; zera a contagem.
+     */
+    long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.betaware.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limita as chamadas ao endpoint por usuário com um token bucket: até {@link #capacity()}
+ * requisições seguidas, recarregando {@link #refillPerMinute()} fichas por minuto. Acima do limite a
+ * resposta é 429 com Retry-After.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+
+    long capacity();
+
+    long refillPerMinute();
+}
@@ -0,0 +1,59 @@
+package com.example.betaware.security;
+
+import com.example.betaware.exception.LimiteRequisicoesExcedidoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica {@link RateLimit} aos handlers anotados. O bucket é por usuário autenticado (ou IP, sem
+ * autenticação) e por endpoint.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private RateLimitStore rateLimitStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // o dispatch assíncrono de respostas em streaming já foi contado na requisição original
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RateLimit limit = method.getMethodAnnotation(RateLimit.class);
+        if (limit == null) {
+            return true;
+        }
+
+        String endpoint = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        String key = client(request) + "|" + endpoint;
+        long waitNanos = rateLimitStore.tryConsume(key, limit.capacity(), limit.refillPerMinute());
+        if (waitNanos > 0) {
+            meterRegistry.counter("betaware.ratelimit.rejeitadas", "endpoint", endpoint).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new LimiteRequisicoesExcedidoException("Limite de requisições excedido para este recurso", retryAfter);
+        }
+        return true;
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "u:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.betaware.security;
+
+/**
+ * Armazenamento dos token buckets. A implementação padrão é em memória ({@link InMemoryRateLimitStore});
+ * para compartilhar os limites entre instâncias, registre outra implementação como {@code @Primary}
+ * (por exemplo sobre Redis).
+ */
+public interface RateLimitStore {
+
+    /**
+     * Tenta consumir uma ficha do bucket {@code key}.
+     *
+     * @return 0 se a ficha foi consumida, ou o tempo em nanossegundos até a próxima ficha
+     */
+    long tryConsume(String key, long capacity, long refillPerMinute);
+}
@@ -0,0 +1,19 @@
+package com.example.betaware.security;
+
+/**
+ * Identificadores revogados ({@code jti} de um token ou {@code sid} de uma sessão inteira). A
+ * implementação padrão é em memória ({@link InMemoryRevocationStore}); para compartilhar as
+ * revogações entre instâncias, registre outra implementação como {@code @Primary}.
+ */
+public interface RevocationStore {
+
+    /**
+     * Revoga {@code id} até {@code expiraEmMillis}, quando o token (ou a sessão) deixaria de valer de
+     * qualquer forma e a entrada pode ser descartada.
+     *
+     * @return false se o id já estava revogado
+     */
+    boolean revogar(String id, long expiraEmMillis);
+
+    boolean revogado(String id);
+}
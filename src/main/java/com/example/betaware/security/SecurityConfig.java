@@ -1,8 +1,16 @@
 package com.example.betaware.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -21,6 +29,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -32,20 +42,60 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * Endpoints do actuator. Com {@code management.server.port} diferente da porta da API, o actuator só
+     * é servido na porta de gerenciamento, que escuta numa interface interna: lá o scrape do Prometheus
+     * dispensa token. Na mesma porta da API, {@code /actuator/prometheus} exige ADMIN como os demais.
+     *
+     * <p>Os matchers de {@link EndpointRequest} não dependem do DispatcherServlet da API, então também
+     * valem no contexto filho da porta de gerenciamento, que tem o próprio servlet.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        boolean portaSeparada = ManagementPortType.get(environment) == ManagementPortType.DIFFERENT;
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll();
+                    if (portaSeparada) {
+                        auth.requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).permitAll();
+                    }
+                    auth.anyRequest().hasRole("ADMIN");
+                })
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // respostas assíncronas (streaming) já foram autorizadas no dispatch original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // matchers por caminho, sem o DispatcherServlet da API: esta cadeia também atende o
+                        // contexto da porta de gerenciamento (página de erro, caminhos fora do actuator)
                         .requestMatchers(
-                                "/api/v1/auth/**",
-                                "/api-docs/**",
-                                "/swagger-ui/**",
-                                "/h2-console/**",
-                                "/v1/auth/**",
-                                "/v1/health",
-                                "/v1/debug/**"
+                                antMatcher("/api/v1/auth/**"),
+                                antMatcher("/api-docs/**"),
+                                antMatcher("/swagger-ui/**"),
+                                antMatcher("/h2-console/**"),
+                                antMatcher("/v1/auth/**"),
+                                antMatcher("/v1/health/**"),
+                                antMatcher("/.well-known/jwks.json"),
+                                antMatcher("/v1/debug/**")
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -82,6 +132,6 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 } 
\ No newline at end of file
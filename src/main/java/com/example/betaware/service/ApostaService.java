@@ -1,19 +1,43 @@
 package com.example.betaware.service;
 
 import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.dto.ItemLoteDTO;
+import com.example.betaware.dto.PaginaApostasDTO;
+import com.example.betaware.dto.ResultadoLoteDTO;
+import com.example.betaware.exception.NegocioException;
 import com.example.betaware.exception.RecursoNaoEncontradoException;
 import com.example.betaware.model.Aposta;
 import com.example.betaware.model.Usuario;
 import com.example.betaware.repository.ApostaRepository;
 import com.example.betaware.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+@Timed("betaware.servico")
 @Service
 public class ApostaService {
 
@@ -23,45 +47,217 @@ public class ApostaService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private EstatisticaApostaService estatisticaService;
+
+    @Autowired
+    private VersaoApostasUsuario versaoApostas;
+
+    @Autowired
+    private HubApostas hubApostas;
+
+    @Autowired
+    private IngestaoApostas ingestaoApostas;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ValidadorPeriodo validadorPeriodo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoBatch;
+
+    @Value("${app.apostas.lote.tamanho-maximo:10000}")
+    private int tamanhoMaximoLote;
+
+    @Value("${app.apostas.pagina.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${app.apostas.pagina.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+
+    @Value("${app.apostas.periodo.linhas-maximas:10000}")
+    private int linhasMaximasPeriodo;
+
     @Transactional
     public ApostaDTO criarAposta(ApostaDTO apostaDTO, String username) {
         Usuario usuario = usuarioRepository.findByUsername(username)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado"));
 
-        Aposta aposta = new Aposta();
-        aposta.setCategoria(apostaDTO.getCategoria());
-        aposta.setJogo(apostaDTO.getJogo());
-        aposta.setValor(apostaDTO.getValor());
-        aposta.setResultado(apostaDTO.getResultado());
-        aposta.setData(apostaDTO.getData());
-        aposta.setUsuario(usuario);
+        Aposta aposta = apostaRepository.save(novaAposta(apostaDTO, usuario));
+        estatisticaService.registrar(usuario.getId(), aposta.getCategoria(),
+                DeltaEstatistica.novaAposta(aposta.getResultado(), aposta.getValorCentavos()));
+        versaoApostas.registrarAlteracao(usuario.getId());
+        ApostaDTO criada = converterParaDTO(aposta);
+        hubApostas.publicarAposCommit(List.of(criada));
+        return criada;
+    }
+
+    /**
+     * Valida e grava as apostas conforme são lidas do iterador, resolvendo o usuário uma única vez.
+     * As inserções são descarregadas a cada {@code hibernate.jdbc.batch_size} itens e o contexto de
+     * persistência é limpo em seguida, para que o lote não acumule entidades em memória.
+     */
+    @Transactional
+    public ResultadoLoteDTO criarApostasEmLote(Iterator<ApostaDTO> apostas, String username) {
+        Usuario usuario = usuarioRepository.findByUsername(username)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado"));
 
-        aposta = apostaRepository.save(aposta);
-        return converterParaDTO(aposta);
+        List<ItemLoteDTO> itens = new ArrayList<>();
+        Map<String, DeltaEstatistica> estatisticas = new HashMap<>();
+        // só guarda as apostas criadas se houver alguém conectado ao stream do usuário
+        List<ApostaDTO> publicar = hubApostas.temAssinantes(username) ? new ArrayList<>() : null;
+        int criadas = 0;
+        int pendentes = 0;
+
+        while (apostas.hasNext()) {
+            if (itens.size() >= tamanhoMaximoLote) {
+                throw new NegocioException("O lote excede o limite de " + tamanhoMaximoLote + " apostas");
+            }
+            ApostaDTO apostaDTO = apostas.next();
+            Set<ConstraintViolation<ApostaDTO>> violacoes = validator.validate(apostaDTO);
+
+            ItemLoteDTO item = new ItemLoteDTO();
+            item.setIndice(itens.size());
+            if (violacoes.isEmpty()) {
+                Aposta aposta = novaAposta(apostaDTO, usuario);
+                entityManager.persist(aposta);
+                item.setId(aposta.getId());
+                item.setStatus("CRIADA");
+                estatisticas.computeIfAbsent(aposta.getCategoria(), c -> new DeltaEstatistica())
+                        .adicionarAposta(aposta.getResultado(), aposta.getValorCentavos());
+                if (publicar != null) {
+                    publicar.add(converterParaDTO(aposta));
+                }
+                criadas++;
+                pendentes++;
+            } else {
+                Map<String, String> erros = new LinkedHashMap<>();
+                violacoes.forEach(v -> erros.put(v.getPropertyPath().toString(), v.getMessage()));
+                item.setStatus("REJEITADA");
+                item.setErros(erros);
+            }
+            itens.add(item);
+
+            if (pendentes >= tamanhoBatch) {
+                entityManager.flush();
+                entityManager.clear();
+                pendentes = 0;
+            }
+        }
+        entityManager.flush();
+        estatisticas.forEach((categoria, delta) -> estatisticaService.registrar(usuario.getId(), categoria, delta));
+        if (criadas > 0) {
+            versaoApostas.registrarAlteracao(usuario.getId());
+        }
+        if (publicar != null) {
+            hubApostas.publicarAposCommit(publicar);
+        }
+
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+        resultado.setTotal(itens.size());
+        resultado.setCriadas(criadas);
+        resultado.setRejeitadas(itens.size() - criadas);
+        resultado.setItens(itens);
+        return resultado;
     }
 
+    /**
+     * Com a ingestão assíncrona, inclui as apostas já aceitas e ainda não gravadas, para que o usuário
+     * sempre veja as próprias apostas logo após criá-las.
+     */
     public List<ApostaDTO> listarApostasPorUsuario(String username) {
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        Collection<ApostaDTO> pendentes = ingestaoApostas.pendentes(username);
+        return incluirPendentes(apostaRepository.findDtoByUsername(username), pendentes);
+    }
+
+    public PaginaApostasDTO listarPaginaPorUsuario(String username, String cursor, Integer tamanho) {
+        int limite = tamanho == null ? tamanhoPaginaPadrao : Math.max(1, Math.min(tamanho, tamanhoPaginaMaximo));
+        // busca um item a mais só para saber se existe próxima página
+        Pageable pagina = PageRequest.of(0, limite + 1);
 
-        return apostaRepository.findByUsuario(usuario).stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+        List<ApostaDTO> apostas;
+        if (cursor == null || cursor.isBlank()) {
+            apostas = apostaRepository.findDtoByUsernameOrdenado(username, pagina);
+        } else {
+            Cursor ultima = decodificarCursor(cursor);
+            apostas = apostaRepository.findDtoByUsernameAposCursor(username, ultima.data(), ultima.id(), pagina);
+        }
+
+        boolean temProxima = apostas.size() > limite;
+        List<ApostaDTO> itens = temProxima ? apostas.subList(0, limite) : apostas;
+
+        PaginaApostasDTO resposta = new PaginaApostasDTO();
+        resposta.setApostas(itens);
+        resposta.setProximoCursor(temProxima ? codificarCursor(itens.get(itens.size() - 1)) : null);
+        return resposta;
+    }
+
+    /**
+     * Percorre todas as apostas do usuário em ordem (data, id) sem materializar a lista.
+     */
+    @Transactional(readOnly = true)
+    public void transmitirApostasPorUsuario(String username, Consumer<ApostaDTO> consumidor) {
+        try (Stream<ApostaDTO> apostas = apostaRepository.streamDtoByUsername(username)) {
+            apostas.forEach(consumidor);
+        }
     }
 
+    /**
+     * Consulta global por período, limitada a {@code app.apostas.periodo.intervalo-maximo} e a
+     * {@code app.apostas.periodo.linhas-maximas} apostas. Volumes maiores devem usar a exportação.
+     */
     public List<ApostaDTO> listarApostasPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        return apostaRepository.findByDataBetween(inicio, fim).stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+        validadorPeriodo.validar(inicio, fim);
+
+        List<ApostaDTO> apostas = apostaRepository.findDtoByDataBetween(inicio, fim, PageRequest.of(0, linhasMaximasPeriodo + 1));
+        if (apostas.size() > linhasMaximasPeriodo) {
+            throw new NegocioException("O período tem mais de " + linhasMaximasPeriodo
+                    + " apostas; reduza o intervalo ou use /v1/apostas/exportacao");
+        }
+        return apostas;
     }
 
+    /**
+     * Apostas do usuário no período, com o mesmo limite de intervalo da consulta global.
+     */
     public List<ApostaDTO> listarApostasPorUsuarioEPeriodo(String username, LocalDateTime inicio, LocalDateTime fim) {
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        validadorPeriodo.validar(inicio, fim);
+        List<ApostaDTO> pendentes = ingestaoApostas.pendentes(username).stream()
+                .filter(aposta -> !aposta.getData().isBefore(inicio) && !aposta.getData().isAfter(fim))
+                .toList();
+        return incluirPendentes(apostaRepository.findDtoByUsernameAndDataBetween(username, inicio, fim), pendentes);
+    }
 
-        return apostaRepository.findByUsuarioAndDataBetween(usuario, inicio, fim).stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+    // as pendentes são lidas antes da consulta; uma aposta gravada entre as duas leituras aparece nas duas
+    private static List<ApostaDTO> incluirPendentes(List<ApostaDTO> apostas, Collection<ApostaDTO> pendentes) {
+        if (pendentes.isEmpty()) {
+            return apostas;
+        }
+        Set<Long> gravadas = new HashSet<>();
+        apostas.forEach(aposta -> gravadas.add(aposta.getId()));
+        List<ApostaDTO> todas = new ArrayList<>(apostas);
+        for (ApostaDTO pendente : pendentes) {
+            if (!gravadas.contains(pendente.getId())) {
+                todas.add(pendente);
+            }
+        }
+        return todas;
+    }
+
+    private Aposta novaAposta(ApostaDTO apostaDTO, Usuario usuario) {
+        Aposta aposta = new Aposta();
+        aposta.setCategoria(apostaDTO.getCategoria());
+        aposta.setJogo(apostaDTO.getJogo());
+        aposta.setValorCentavos(apostaDTO.getValor());
+        aposta.setResultado(apostaDTO.getResultado());
+        aposta.setData(apostaDTO.getData());
+        aposta.setUsuario(usuario);
+        return aposta;
     }
 
     private ApostaDTO converterParaDTO(Aposta aposta) {
@@ -69,10 +265,29 @@ public class ApostaService {
         dto.setId(aposta.getId());
         dto.setCategoria(aposta.getCategoria());
         dto.setJogo(aposta.getJogo());
-        dto.setValor(aposta.getValor());
+        dto.setValor(aposta.getValorCentavos());
         dto.setResultado(aposta.getResultado());
         dto.setData(aposta.getData());
         dto.setUsername(aposta.getUsuario().getUsername());
         return dto;
     }
-} 
\ No newline at end of file
+
+    private String codificarCursor(ApostaDTO aposta) {
+        String valor = aposta.getData() + "|" + aposta.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodificarCursor(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new NegocioException("Cursor de paginação inválido");
+        }
+    }
+
+    private record Cursor(LocalDateTime data, Long id) {
+    }
+}
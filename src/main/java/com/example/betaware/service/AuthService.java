@@ -1,21 +1,40 @@
 package com.example.betaware.service;
 
+import com.example.betaware.config.SenhaExecutor;
 import com.example.betaware.dto.JwtResponse;
 import com.example.betaware.dto.LoginRequest;
 import com.example.betaware.dto.RegisterRequest;
+import com.example.betaware.exception.ServicoSobrecarregadoException;
 import com.example.betaware.exception.UsuarioJaExisteException;
 import com.example.betaware.model.Usuario;
 import com.example.betaware.model.enums.Perfil;
 import com.example.betaware.repository.UsuarioRepository;
 import com.example.betaware.security.JwtTokenProvider;
+import com.example.betaware.security.RevocationStore;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
+@Timed("betaware.servico")
 @Service
 public class AuthService {
 
@@ -31,38 +50,132 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private RevocationStore revocationStore;
+
+    @Autowired
+    private IndiceUsuarios indiceUsuarios;
+
+    @Autowired
+    private SenhaExecutor senhaExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.senha.retry-after-segundos:1}")
+    private long retryAfterSegundos;
+
+    private Timer latenciaSenha;
+    private Counter loginsRecusados;
+
+    @PostConstruct
+    public void init() {
+        latenciaSenha = Timer.builder("betaware.auth.senha.latencia")
+                .description("Tempo de autenticação com verificação BCrypt")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        loginsRecusados = Counter.builder("betaware.auth.senha.recusados")
+                .description("Logins recusados com a fila do pool de senhas cheia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa o login no pool de senhas. Se a fila estiver cheia, falha imediatamente com
+     * {@link ServicoSobrecarregadoException} (503 com Retry-After).
+     */
+    public CompletableFuture<JwtResponse> loginAsync(LoginRequest loginRequest) {
+        try {
+            return senhaExecutor.executar(() -> login(loginRequest));
+        } catch (RejectedExecutionException e) {
+            loginsRecusados.increment();
+            throw new ServicoSobrecarregadoException("Muitas tentativas de login simultâneas, tente novamente", retryAfterSegundos);
+        }
+    }
+
     public JwtResponse login(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
+        Authentication authentication = latenciaSenha.record(() -> authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getSenha())
-        );
+        ));
 
-        Usuario usuario = (Usuario) authentication.getPrincipal();
-        String token = tokenProvider.generateToken(authentication);
+        return emitirTokens((Usuario) authentication.getPrincipal(), tokenProvider.novaSessao());
+    }
+
+    /**
+     * Troca um refresh token por um novo par na mesma sessão. Cada refresh token vale uma única vez:
+     * ele é revogado na troca, e reapresentá-lo (token vazado ou reenviado por outro cliente) revoga a
+     * sessão inteira, derrubando também os tokens emitidos a partir dele.
+     */
+    public JwtResponse renovar(String refreshToken) {
+        Claims claims = claimsDoRefreshToken(refreshToken);
+        String sessao = claims.get(JwtTokenProvider.CLAIM_SESSAO, String.class);
+        if (revocationStore.revogado(sessao)) {
+            throw new BadCredentialsException("Sessão revogada");
+        }
+        if (!revocationStore.revogar(claims.getId(), claims.getExpiration().getTime())) {
+            log.warn("Refresh token reutilizado; revogando a sessão de {}", claims.getSubject());
+            revogarSessao(sessao);
+            throw new BadCredentialsException("Refresh token já utilizado");
+        }
+
+        Usuario usuario = usuarioRepository.findByUsername(claims.getSubject())
+                .orElseThrow(() -> new BadCredentialsException("Usuário não encontrado"));
+        return emitirTokens(usuario, sessao);
+    }
+
+    public void logout(String refreshToken) {
+        revogarSessao(claimsDoRefreshToken(refreshToken).get(JwtTokenProvider.CLAIM_SESSAO, String.class));
+    }
 
+    private Claims claimsDoRefreshToken(String refreshToken) {
+        JwtTokenProvider.Resultado resultado = tokenProvider.parse(refreshToken);
+        if (!resultado.valido() || !JwtTokenProvider.isRefreshToken(resultado.claims())) {
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+        return resultado.claims();
+    }
+
+    // a sessão se renova a cada troca, então sua revogação precisa durar um refresh token inteiro
+    private void revogarSessao(String sessao) {
+        revocationStore.revogar(sessao, System.currentTimeMillis() + tokenProvider.getRefreshExpirationInMs());
+    }
+
+    private JwtResponse emitirTokens(Usuario usuario, String sessao) {
         JwtResponse jwtResponse = new JwtResponse();
         jwtResponse.setNome(usuario.getNome());
-        jwtResponse.setToken(token);
+        jwtResponse.setToken(tokenProvider.generateToken(usuario.getUsername(), sessao));
+        jwtResponse.setRefreshToken(tokenProvider.generateRefreshToken(usuario.getUsername(), sessao));
+        jwtResponse.setExpiraEmSegundos(tokenProvider.getJwtExpirationInMs() / 1000);
         jwtResponse.setUsername(usuario.getUsername());
         jwtResponse.setPerfil(usuario.getPerfil().name());
         return jwtResponse;
     }
 
+    /**
+     * Cadastra um novo usuário. O índice em memória descarta sem consultar o banco os casos em que
+     * username, email e CPF certamente estão livres; nos demais, uma única consulta verifica os três.
+     * A restrição de unicidade continua valendo para cadastros simultâneos.
+     */
     @Transactional
     public void register(RegisterRequest registerRequest) {
         try {
-            // username ja existe
-            if (usuarioRepository.existsByUsername(registerRequest.getUsername())) {
-                throw new UsuarioJaExisteException("Username já está em uso");
-            }
+            if (indiceUsuarios.talvezExista(registerRequest.getUsername(), registerRequest.getEmail(), registerRequest.getCpf())) {
+                List<String> emUso = usuarioRepository.findCamposEmUso(
+                        registerRequest.getUsername(), registerRequest.getEmail(), registerRequest.getCpf());
 
-            // email ja existe
-            if (usuarioRepository.existsByEmail(registerRequest.getEmail())) {
-                throw new UsuarioJaExisteException("Email já está em uso");
-            }
+                // username ja existe
+                if (emUso.contains("username")) {
+                    throw new UsuarioJaExisteException("Username já está em uso");
+                }
+
+                // email ja existe
+                if (emUso.contains("email")) {
+                    throw new UsuarioJaExisteException("Email já está em uso");
+                }
 
-            // CPF ja existe
-            if (usuarioRepository.existsByCpf(registerRequest.getCpf())) {
-                throw new UsuarioJaExisteException("CPF já está em uso");
+                // CPF ja existe
+                if (emUso.contains("cpf")) {
+                    throw new UsuarioJaExisteException("CPF já está em uso");
+                }
             }
 
             // novo usuario
@@ -77,12 +190,14 @@ public class AuthService {
             usuario.setPerfil(Perfil.USER);
 
             // salvar o usuario no banco de dados
-            usuarioRepository.save(usuario);
+            usuarioRepository.saveAndFlush(usuario);
         } catch (UsuarioJaExisteException e) {
             throw e;
+        } catch (DataIntegrityViolationException e) {
+            // outro cadastro com os mesmos dados foi gravado entre a verificacao e o insert
+            throw new UsuarioJaExisteException("Username, email ou CPF já está em uso");
         } catch (Exception e) {
-            System.err.println("Erro ao registrar usuário: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erro ao registrar usuário {}", registerRequest.getUsername(), e);
             throw new RuntimeException("Erro ao registrar usuário: " + e.getMessage(), e);
         }
     }
@@ -0,0 +1,62 @@
+package com.example.betaware.service;
+
+import com.example.betaware.model.enums.ResultadoAposta;
+
+/**
+ * Variação a ser somada ao agregado de um usuário em uma categoria. Valores em centavos.
+ */
+public class DeltaEstatistica {
+
+    long quantidade;
+    long totalApostado;
+    long ganhou;
+    long perdeu;
+    long pendente;
+    long cancelada;
+    long valorGanho;
+    long valorPerdido;
+
+    public static DeltaEstatistica novaAposta(ResultadoAposta resultado, long valorCentavos) {
+        DeltaEstatistica delta = new DeltaEstatistica();
+        delta.adicionarAposta(resultado, valorCentavos);
+        return delta;
+    }
+
+    /**
+     * Liquidação de {@code quantidade} apostas pendentes, somando {@code valorCentavos}, para o
+     * resultado {@code novo}.
+     */
+    public static DeltaEstatistica liquidacao(ResultadoAposta novo, long quantidade, long valorCentavos) {
+        DeltaEstatistica delta = new DeltaEstatistica();
+        delta.aplicarResultado(ResultadoAposta.PENDENTE, -quantidade, -valorCentavos);
+        delta.aplicarResultado(novo, quantidade, valorCentavos);
+        return delta;
+    }
+
+    public void adicionarAposta(ResultadoAposta resultado, long valorCentavos) {
+        quantidade++;
+        totalApostado += valorCentavos;
+        aplicarResultado(resultado, 1, valorCentavos);
+    }
+
+    public boolean isVazio() {
+        return quantidade == 0 && totalApostado == 0 && ganhou == 0 && perdeu == 0
+                && pendente == 0 && cancelada == 0 && valorGanho == 0 && valorPerdido == 0;
+    }
+
+    // quantidade e valor já com sinal (negativos para retirar apostas do resultado)
+    private void aplicarResultado(ResultadoAposta resultado, long quantidade, long valorCentavos) {
+        switch (resultado) {
+            case GANHOU -> {
+                ganhou += quantidade;
+                valorGanho += valorCentavos;
+            }
+            case PERDEU -> {
+                perdeu += quantidade;
+                valorPerdido += valorCentavos;
+            }
+            case PENDENTE -> pendente += quantidade;
+            case CANCELADA -> cancelada += quantidade;
+        }
+    }
+}
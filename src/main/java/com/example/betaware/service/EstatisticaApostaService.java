@@ -0,0 +1,177 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.EstatisticaCategoriaDTO;
+import com.example.betaware.dto.EstatisticasApostasDTO;
+import com.example.betaware.dto.RelatorioReconstrucaoDTO;
+import com.example.betaware.model.EstatisticaAposta;
+import com.example.betaware.repository.EstatisticaApostaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Service
+public class EstatisticaApostaService {
+
+    @Autowired
+    private EstatisticaApostaRepository estatisticaRepository;
+
+    @Value("${app.apostas.estatisticas.corrigir-divergencias:false}")
+    private boolean corrigirDivergencias;
+
+    /**
+     * Quem soma deltas segura a leitura até o fim da sua transação; a reconstrução com correção segura
+     * a escrita. Assim nenhum delta é somado numa linha que a correção está apagando, e um delta cujas
+     * apostas ainda não estavam confirmadas no recálculo só é somado depois, sobre o agregado novo.
+     * Vale dentro de uma instância, como o banco H2 da aplicação.
+     */
+    private final ReentrantReadWriteLock escritores = new ReentrantReadWriteLock();
+
+    /**
+     * Soma o delta ao agregado do usuário na categoria. Deve ser chamado dentro da transação que
+     * gravou ou alterou as apostas, para que o agregado nunca fique à frente ou atrás delas.
+     */
+    @Transactional
+    public void registrar(Long usuarioId, String categoria, DeltaEstatistica delta) {
+        if (delta.isVazio()) {
+            return;
+        }
+        Lock leitura = escritores.readLock();
+        leitura.lock();
+        try {
+            estatisticaRepository.somar(usuarioId, categoria, delta.quantidade, delta.totalApostado,
+                    delta.ganhou, delta.perdeu, delta.pendente, delta.cancelada,
+                    delta.valorGanho, delta.valorPerdido);
+        } finally {
+            liberarAoFimDaTransacao(leitura);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public EstatisticasApostasDTO consultar(String username) {
+        EstatisticasApostasDTO total = new EstatisticasApostasDTO();
+        List<EstatisticaCategoriaDTO> categorias = new ArrayList<>();
+
+        for (EstatisticaAposta estatistica : estatisticaRepository.findByUsername(username)) {
+            EstatisticaCategoriaDTO categoria = new EstatisticaCategoriaDTO();
+            categoria.setCategoria(estatistica.getCategoria());
+            categoria.setQuantidade(estatistica.getQuantidade());
+            categoria.setTotalApostado(estatistica.getTotalApostadoCentavos());
+            categoria.setQuantidadeGanhou(estatistica.getQuantidadeGanhou());
+            categoria.setQuantidadePerdeu(estatistica.getQuantidadePerdeu());
+            categoria.setQuantidadePendente(estatistica.getQuantidadePendente());
+            categoria.setQuantidadeCancelada(estatistica.getQuantidadeCancelada());
+            categoria.setResultadoLiquido(estatistica.getValorGanhoCentavos() - estatistica.getValorPerdidoCentavos());
+            categorias.add(categoria);
+
+            total.setQuantidade(total.getQuantidade() + categoria.getQuantidade());
+            total.setTotalApostado(total.getTotalApostado() + categoria.getTotalApostado());
+            total.setQuantidadeGanhou(total.getQuantidadeGanhou() + categoria.getQuantidadeGanhou());
+            total.setQuantidadePerdeu(total.getQuantidadePerdeu() + categoria.getQuantidadePerdeu());
+            total.setQuantidadePendente(total.getQuantidadePendente() + categoria.getQuantidadePendente());
+            total.setQuantidadeCancelada(total.getQuantidadeCancelada() + categoria.getQuantidadeCancelada());
+            total.setResultadoLiquido(total.getResultadoLiquido() + categoria.getResultadoLiquido());
+        }
+
+        total.setCategorias(categorias);
+        return total;
+    }
+
+    /**
+     * Recalcula o agregado a partir da tabela apostas e compara com o que está armazenado.
+     * Com {@code corrigir}, substitui o conteúdo armazenado pelo recalculado quando houver divergência;
+     * nesse caso os deltas de outras transações esperam até o fim desta.
+     */
+    @Transactional
+    public RelatorioReconstrucaoDTO reconstruir(boolean corrigir) {
+        if (!corrigir) {
+            return comparar(false);
+        }
+        Lock escrita = escritores.writeLock();
+        escrita.lock();
+        try {
+            return comparar(true);
+        } finally {
+            liberarAoFimDaTransacao(escrita);
+        }
+    }
+
+    private RelatorioReconstrucaoDTO comparar(boolean corrigir) {
+        List<EstatisticaAposta> calculadas = estatisticaRepository.calcularAPartirDasApostas();
+        Map<String, EstatisticaAposta> armazenadas = new HashMap<>();
+        estatisticaRepository.findAll().forEach(e -> armazenadas.put(chave(e), e));
+
+        RelatorioReconstrucaoDTO relatorio = new RelatorioReconstrucaoDTO();
+        relatorio.setRegistrosCalculados(calculadas.size());
+        relatorio.setRegistrosArmazenados(armazenadas.size());
+
+        int divergencias = 0;
+        for (EstatisticaAposta calculada : calculadas) {
+            EstatisticaAposta armazenada = armazenadas.remove(chave(calculada));
+            if (armazenada == null || !equivalentes(armazenada, calculada)) {
+                divergencias++;
+            }
+        }
+        // linhas armazenadas sem nenhuma aposta correspondente
+        divergencias += armazenadas.size();
+        relatorio.setDivergencias(divergencias);
+
+        if (corrigir && divergencias > 0) {
+            estatisticaRepository.deleteAllInBatch();
+            estatisticaRepository.saveAll(calculadas);
+            relatorio.setCorrigido(true);
+        }
+        return relatorio;
+    }
+
+    @Scheduled(cron = "${app.apostas.estatisticas.verificacao-cron:-}")
+    @Transactional
+    public void verificarDivergencias() {
+        RelatorioReconstrucaoDTO relatorio = reconstruir(corrigirDivergencias);
+        if (relatorio.getDivergencias() > 0) {
+            log.warn("Estatísticas de apostas divergentes: {} registro(s), corrigido={}",
+                    relatorio.getDivergencias(), relatorio.isCorrigido());
+        }
+    }
+
+    // o lock é do thread da transação, e afterCompletion roda nesse mesmo thread; sem transação, libera já
+    private static void liberarAoFimDaTransacao(Lock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private static String chave(EstatisticaAposta estatistica) {
+        return estatistica.getUsuarioId() + "|" + estatistica.getCategoria();
+    }
+
+    private static boolean equivalentes(EstatisticaAposta a, EstatisticaAposta b) {
+        return a.getQuantidade() == b.getQuantidade()
+                && a.getQuantidadeGanhou() == b.getQuantidadeGanhou()
+                && a.getQuantidadePerdeu() == b.getQuantidadePerdeu()
+                && a.getQuantidadePendente() == b.getQuantidadePendente()
+                && a.getQuantidadeCancelada() == b.getQuantidadeCancelada()
+                && a.getTotalApostadoCentavos() == b.getTotalApostadoCentavos()
+                && a.getValorGanhoCentavos() == b.getValorGanhoCentavos()
+                && a.getValorPerdidoCentavos() == b.getValorPerdidoCentavos();
+    }
+}
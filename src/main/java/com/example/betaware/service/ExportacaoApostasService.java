@@ -0,0 +1,303 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.exception.NegocioException;
+import com.example.betaware.exception.ServicoSobrecarregadoException;
+import com.example.betaware.repository.ApostaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta as apostas de um período em CSV ou NDJSON. O período é dividido em intervalos de tempo
+ * lidos em paralelo e escritos na ordem original; cada intervalo é lido em páginas de no máximo
+ * {@code linhas-por-pagina} apostas, por keyset em (data, id). Por exportação ficam em memória no
+ * máximo {@code threads + 1} páginas, então o uso de memória não depende do período nem de quantas
+ * apostas caem em um intervalo. Cada página é lida na sua própria transação somente leitura, e o
+ * período é limitado a {@code app.apostas.exportacao.intervalo-maximo}.
+ *
+ * <p>A capacidade do executor é reservada antes da resposta começar ({@link #reservar()}): uma
+ * exportação aceita nunca tem uma leitura rejeitada no meio do corpo.
+ */
+@Slf4j
+@Service
+public class ExportacaoApostasService {
+
+    public enum Formato {
+        CSV,
+        NDJSON
+    }
+
+    private static final byte[] CABECALHO_CSV = "id,categoria,jogo,valor,resultado,data,username\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ApostaRepository apostaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.apostas.exportacao.intervalo-maximo:P366D}")
+    private Duration intervaloMaximo;
+
+    private TransactionTemplate leitura;
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore exportacoes;
+    private final int janela;
+    private final int linhasPorPagina;
+    private final Duration intervalo;
+    private final long retryAfterSegundos;
+
+    public ExportacaoApostasService(MeterRegistry meterRegistry,
+                                    @Value("${app.apostas.exportacao.threads:4}") int threads,
+                                    @Value("${app.apostas.exportacao.fila-maxima:64}") int filaMaxima,
+                                    @Value("${app.apostas.exportacao.intervalo:PT1H}") Duration intervalo,
+                                    @Value("${app.apostas.exportacao.linhas-por-pagina:1000}") int linhasPorPagina,
+                                    @Value("${app.apostas.exportacao.retry-after-segundos:5}") long retryAfterSegundos) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(filaMaxima),
+                new CustomizableThreadFactory("exportacao-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.janela = threads;
+        // cada exportação tem no máximo janela + 1 leituras no executor (a continuação da página atual)
+        this.exportacoes = new Semaphore(Math.max(1, (threads + filaMaxima) / (janela + 1)));
+        this.linhasPorPagina = linhasPorPagina;
+        this.intervalo = intervalo;
+        this.retryAfterSegundos = retryAfterSegundos;
+        new ExecutorServiceMetrics(executor, "betaware.exportacao", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    public void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (!inicio.isBefore(fim)) {
+            throw new NegocioException("O início do período deve ser anterior ao fim");
+        }
+        if (Duration.between(inicio, fim).compareTo(intervaloMaximo) > 0) {
+            throw new NegocioException("O período máximo da exportação é de " + intervaloMaximo.toDays() + " dia(s)");
+        }
+    }
+
+    /**
+     * Reserva a capacidade de uma exportação, ainda antes do primeiro byte da resposta. Quem reserva
+     * deve passá-la a {@link #exportar} ou liberá-la; como a tarefa assíncrona pode nunca rodar
+     * (executor cheio, timeout, cliente que desistiu), o controller também a libera ao fim da requisição.
+     */
+    public Reserva reservar() {
+        if (!exportacoes.tryAcquire()) {
+            throw new ServicoSobrecarregadoException("Muitas exportações simultâneas, tente novamente", retryAfterSegundos);
+        }
+        return new Reserva();
+    }
+
+    /**
+     * Capacidade de uma exportação; só a primeira chamada a {@link #liberar()} a devolve.
+     */
+    public final class Reserva {
+
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        public void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                exportacoes.release();
+            }
+        }
+    }
+
+    /**
+     * Escreve as apostas com data em [inicio, fim) na saída, comprimindo com gzip se pedido. Consome a
+     * reserva, mesmo em caso de falha; se ela já foi liberada (a requisição terminou antes de a
+     * tarefa rodar), não lê nada.
+     */
+    public void exportar(Reserva reserva, LocalDateTime inicio, LocalDateTime fim, Formato formato, boolean gzip,
+                         OutputStream saida) throws IOException {
+        if (reserva.liberada.get()) {
+            throw new IOException("Exportação encerrada antes de começar");
+        }
+        try {
+            escreverPeriodo(inicio, fim, formato, gzip, saida);
+        } finally {
+            reserva.liberar();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private void escreverPeriodo(LocalDateTime inicio, LocalDateTime fim, Formato formato, boolean gzip,
+                                 OutputStream saida) throws IOException {
+        validarPeriodo(inicio, fim);
+        OutputStream destino = gzip ? new GZIPOutputStream(saida, 64 * 1024) : saida;
+        if (formato == Formato.CSV) {
+            destino.write(CABECALHO_CSV);
+        }
+
+        Deque<Future<Pagina>> pendentes = new ArrayDeque<>(janela + 1);
+        LocalDateTime proximo = inicio;
+        try {
+            while (proximo.isBefore(fim) || !pendentes.isEmpty()) {
+                // mantém a janela cheia enquanto houver intervalos a ler
+                while (pendentes.size() < janela && proximo.isBefore(fim)) {
+                    LocalDateTime de = proximo;
+                    LocalDateTime ate = min(de.plus(intervalo), fim);
+                    pendentes.addLast(submeter(() -> lerPagina(de, ate, null, formato)));
+                    proximo = ate;
+                }
+                Pagina pagina = aguardar(pendentes.removeFirst());
+                if (pagina.ultima() != null) {
+                    // o intervalo continua: a próxima página vem antes dos intervalos seguintes
+                    pendentes.addFirst(submeter(() -> lerPagina(pagina.inicio(), pagina.fim(), pagina.ultima(), formato)));
+                }
+                destino.write(pagina.conteudo());
+                destino.flush();
+            }
+        } finally {
+            pendentes.forEach(f -> f.cancel(true));
+        }
+
+        if (gzip) {
+            ((GZIPOutputStream) destino).finish();
+        }
+        destino.flush();
+    }
+
+    /**
+     * Com a reserva feita em {@link #reservar()} a fila do executor não enche; se ainda assim a leitura
+     * for rejeitada, a resposta já começou e a falha vira {@link IOException}, que aborta a conexão em
+     * vez de encerrar um 200 truncado.
+     */
+    private Future<Pagina> submeter(Callable<Pagina> tarefa) throws IOException {
+        try {
+            return executor.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Leitura da exportação rejeitada", e);
+        }
+    }
+
+    /**
+     * Lê até {@code linhasPorPagina} apostas do intervalo após o cursor {@code apos}. Se a página veio
+     * cheia, devolve a última aposta como cursor da próxima.
+     */
+    private Pagina lerPagina(LocalDateTime inicio, LocalDateTime fim, ApostaDTO apos, Formato formato) {
+        Pageable pagina = PageRequest.of(0, linhasPorPagina);
+        List<ApostaDTO> apostas = leitura.execute(status -> apos == null
+                ? apostaRepository.findDtoByDataIntervalo(inicio, fim, pagina)
+                : apostaRepository.findDtoByDataIntervaloAposCursor(inicio, fim, apos.getData(), apos.getId(), pagina));
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(1024, apostas.size() * 128));
+        apostas.forEach(aposta -> escrever(buffer, aposta, formato));
+        ApostaDTO ultima = apostas.size() == linhasPorPagina ? apostas.get(apostas.size() - 1) : null;
+        return new Pagina(buffer.toByteArray(), inicio, fim, ultima);
+    }
+
+    private void escrever(ByteArrayOutputStream buffer, ApostaDTO aposta, Formato formato) {
+        try {
+            if (formato == Formato.NDJSON) {
+                buffer.write(objectMapper.writeValueAsBytes(aposta));
+            } else {
+                StringBuilder linha = new StringBuilder(128)
+                        .append(aposta.getId()).append(',')
+                        .append(csv(aposta.getCategoria())).append(',')
+                        .append(csv(aposta.getJogo())).append(',')
+                        .append(BigDecimal.valueOf(aposta.getValor(), 2).toPlainString()).append(',')
+                        .append(aposta.getResultado()).append(',')
+                        .append(aposta.getData()).append(',')
+                        .append(csv(aposta.getUsername()));
+                buffer.write(linha.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            buffer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Pagina aguardar(Future<Pagina> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportação interrompida", e);
+        } catch (CancellationException | ExecutionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Falha ao ler intervalo da exportação", causa);
+        }
+    }
+
+    /**
+     * Campos de texto vêm do usuário: o que começa com =, +, -, @, tab ou CR seria interpretado como
+     * fórmula por planilhas, então recebe um apóstrofo na frente.
+     */
+    private static String csv(String valor) {
+        if (valor == null || valor.isEmpty()) {
+            return "";
+        }
+        char primeiro = valor.charAt(0);
+        if (primeiro == '=' || primeiro == '+' || primeiro == '-' || primeiro == '@'
+                || primeiro == '\t' || primeiro == '\r') {
+            valor = "'" + valor;
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Conteúdo já formatado de uma página do intervalo [inicio, fim); {@code ultima} é o cursor da
+     * próxima página, ou {@code null} se o intervalo terminou.
+     */
+    private record Pagina(byte[] conteudo, LocalDateTime inicio, LocalDateTime fim, ApostaDTO ultima) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.betaware.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom seguro para uso concorrente. {@link #talvezContenha} nunca dá falso negativo;
+ * a taxa de falso positivo fica perto da configurada enquanto o número de elementos não passar da
+ * capacidade.
+ */
+class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.quantidadeBits = palavras * 64L;
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / capacidade * Math.log(2)));
+    }
+
+    void adicionar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, quantidadeBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual;
+            do {
+                atual = bits.get(palavra);
+                if ((atual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    boolean talvezContenha(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, quantidadeBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits seguido do finalizador do MurmurHash3 para espalhar os bits altos
+    private static long hash64(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
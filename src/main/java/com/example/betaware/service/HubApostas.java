@@ -0,0 +1,304 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.exception.LimiteRequisicoesExcedidoException;
+import com.example.betaware.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publicação em memória das apostas criadas ou liquidadas para os clientes conectados em
+ * {@code /v1/apostas/stream}. Uma conexão ociosa é só o {@link SseEmitter} e uma fila vazia: nenhuma
+ * thread fica presa a ela. Cada assinante tem fila limitada e no máximo uma tarefa de envio por vez
+ * num pool próprio e limitado ({@code app.apostas.stream.threads}), separado do executor da aplicação.
+ * Quem não consome a tempo é desconectado e deve reconectar e recarregar a lista: ao encher a fila ou
+ * quando um envio fica bloqueado por mais de {@code app.apostas.stream.envio-maximo} (cliente que
+ * não lê o socket).
+ *
+ * <p>Desconectar não interrompe um envio já bloqueado: a escrita só termina quando o cliente lê ou
+ * quando estoura o timeout de escrita do conector ({@code server.tomcat.connection-timeout}), e até
+ * lá a thread do pool fica presa. O pool deve ter mais threads que o número de clientes parados ao
+ * mesmo tempo que se espera; se todas estiverem presas, a entrega aos demais atrasa até esse timeout.
+ */
+@Slf4j
+@Component
+public class HubApostas {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final ConcurrentHashMap<String, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final AtomicInteger conexoes = new AtomicInteger();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.apostas.stream.fila-maxima:256}")
+    private int filaMaxima;
+
+    @Value("${app.apostas.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.apostas.stream.conexoes-por-usuario:5}")
+    private int conexoesPorUsuario;
+
+    @Value("${app.apostas.stream.conexoes-maximas:10000}")
+    private int conexoesMaximas;
+
+    @Value("${app.apostas.stream.retry-after-segundos:5}")
+    private long retryAfterSegundos;
+
+    @Value("${app.apostas.stream.threads:32}")
+    private int threads;
+
+    @Value("${app.apostas.stream.envio-maximo:PT10S}")
+    private Duration envioMaximo;
+
+    private ThreadPoolExecutor executor;
+    private Counter desconectadosPorFila;
+    private Counter desconectadosPorAtraso;
+
+    @PostConstruct
+    public void init() {
+        // cada assinante tem no máximo uma tarefa no pool, então a fila nunca passa do número de conexões
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(conexoesMaximas),
+                new CustomizableThreadFactory("sse-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "betaware.sse", Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder("betaware.sse.conexoes", conexoes, AtomicInteger::get).register(meterRegistry);
+        desconectadosPorFila = meterRegistry.counter("betaware.sse.fila.cheia");
+        desconectadosPorAtraso = meterRegistry.counter("betaware.sse.envio.lento");
+    }
+
+    /**
+     * @throws ServicoSobrecarregadoException se o limite global de conexões foi atingido
+     * @throws LimiteRequisicoesExcedidoException se o usuário já tem o máximo de conexões abertas
+     */
+    public SseEmitter assinar(String username) {
+        return assinar(username, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter assinar(String username, SseEmitter emitter) {
+        if (conexoes.incrementAndGet() > conexoesMaximas) {
+            conexoes.decrementAndGet();
+            throw new ServicoSobrecarregadoException("Limite de conexões de stream atingido", retryAfterSegundos);
+        }
+
+        Assinante assinante = new Assinante(username, emitter);
+        try {
+            assinantes.compute(username, (u, atuais) -> {
+                Set<Assinante> conjunto = atuais == null ? ConcurrentHashMap.newKeySet() : atuais;
+                if (conjunto.size() >= conexoesPorUsuario) {
+                    throw new LimiteRequisicoesExcedidoException(
+                            "Máximo de " + conexoesPorUsuario + " conexões de stream por usuário", retryAfterSegundos);
+                }
+                conjunto.add(assinante);
+                return conjunto;
+            });
+        } catch (LimiteRequisicoesExcedidoException e) {
+            conexoes.decrementAndGet();
+            throw e;
+        }
+
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(assinante::encerrar);
+        emitter.onError(e -> remover(assinante));
+        // envia os cabeçalhos logo, para que o cliente e proxies considerem a conexão aberta
+        assinante.enfileirar(HEARTBEAT);
+        return emitter;
+    }
+
+    public boolean temAssinantes() {
+        return conexoes.get() > 0;
+    }
+
+    public boolean temAssinantes(String username) {
+        return assinantes.containsKey(username);
+    }
+
+    /**
+     * Entrega as apostas aos assinantes dos respectivos usuários depois que a transação atual
+     * confirmar, ou imediatamente se não houver transação. Em rollback nada é enviado.
+     */
+    public void publicarAposCommit(List<ApostaDTO> apostas) {
+        if (apostas.isEmpty() || !temAssinantes()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(apostas);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicar(apostas);
+            }
+        });
+    }
+
+    /**
+     * Envia o heartbeat e desconecta quem está com um envio parado há mais de {@code envioMaximo}.
+     */
+    @Scheduled(fixedDelayString = "${app.apostas.stream.heartbeat:PT15S}")
+    public void enviarHeartbeats() {
+        long limite = System.nanoTime() - envioMaximo.toNanos();
+        assinantes.values().forEach(conjunto -> conjunto.forEach(a -> {
+            if (a.atrasado(limite)) {
+                desconectadosPorAtraso.increment();
+                log.debug("Stream de apostas de {} desconectado: envio parado há mais de {}", a.username, envioMaximo);
+                a.encerrar();
+            } else {
+                a.enfileirar(HEARTBEAT);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        assinantes.values().forEach(conjunto -> conjunto.forEach(Assinante::encerrar));
+        executor.shutdownNow();
+    }
+
+    private void publicar(List<ApostaDTO> apostas) {
+        for (ApostaDTO aposta : apostas) {
+            Set<Assinante> conjunto = assinantes.get(aposta.getUsername());
+            if (conjunto != null) {
+                conjunto.forEach(a -> a.enfileirar(aposta));
+            }
+        }
+    }
+
+    private void remover(Assinante assinante) {
+        if (!assinante.removido.compareAndSet(false, true)) {
+            return;
+        }
+        conexoes.decrementAndGet();
+        assinantes.computeIfPresent(assinante.username, (u, conjunto) -> {
+            conjunto.remove(assinante);
+            return conjunto.isEmpty() ? null : conjunto;
+        });
+    }
+
+    private final class Assinante {
+
+        private final String username;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedQueue<Object> fila = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger tamanhoFila = new AtomicInteger();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean removido = new AtomicBoolean();
+        // System.nanoTime() do início do envio em andamento, 0 se nenhum
+        private volatile long envioDesde;
+
+        Assinante(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+        }
+
+        void enfileirar(Object evento) {
+            if (removido.get()) {
+                return;
+            }
+            if (tamanhoFila.incrementAndGet() > filaMaxima) {
+                tamanhoFila.decrementAndGet();
+                desconectadosPorFila.increment();
+                log.debug("Stream de apostas de {} desconectado: fila cheia", username);
+                encerrar();
+                return;
+            }
+            fila.offer(evento);
+            agendarEnvio();
+        }
+
+        private void agendarEnvio() {
+            if (enviando.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::enviar);
+                } catch (RejectedExecutionException e) {
+                    enviando.set(false);
+                    encerrar();
+                }
+            }
+        }
+
+        boolean atrasado(long limite) {
+            long desde = envioDesde;
+            return desde != 0 && desde - limite < 0;
+        }
+
+        private void enviar() {
+            boolean falhou = false;
+            try {
+                Object evento;
+                while (!removido.get() && (evento = fila.poll()) != null) {
+                    tamanhoFila.decrementAndGet();
+                    envioDesde = System.nanoTime();
+                    if (evento == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        ApostaDTO aposta = (ApostaDTO) evento;
+                        emitter.send(SseEmitter.event()
+                                .name("aposta")
+                                .id(String.valueOf(aposta.getId()))
+                                .data(aposta, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // conexão fechada pelo cliente (ou estouro do timeout de escrita) ou emitter já concluído
+                falhou = true;
+                remover(this);
+            } finally {
+                envioDesde = 0;
+                enviando.set(false);
+                if (removido.get()) {
+                    // encerrado durante o envio: encerrar() deixou a conclusão para cá
+                    if (!falhou) {
+                        emitter.complete();
+                    }
+                } else if (!fila.isEmpty()) {
+                    agendarEnvio();
+                }
+            }
+        }
+
+        /**
+         * Desconecta sem esperar o envio em andamento: {@code send} e {@code complete} disputam o
+         * monitor do emitter, e concluir aqui prenderia quem chamou (o heartbeat ou o commit de quem
+         * publicou) até a escrita parada terminar. Nesse caso o próprio envio conclui o emitter ao sair.
+         */
+        void encerrar() {
+            remover(this);
+            if (!enviando.get()) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.betaware.service;
+
+import com.example.betaware.event.UsuarioAlteradoEvent;
+import com.example.betaware.repository.UsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória de username, email e CPF já cadastrados, usado pelo cadastro para evitar
+ * consultas ao banco quando a resposta é certamente "não existe". Enquanto não for carregado,
+ * responde "talvez" para tudo.
+ *
+ * <p>Valores alterados ou removidos continuam no filtro e só geram falsos positivos, que são
+ * resolvidos pela consulta ao banco.
+ */
+@Slf4j
+@Component
+public class IndiceUsuarios {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private final FiltroBloom filtro;
+    private volatile boolean carregado;
+
+    public IndiceUsuarios(@Value("${app.auth.indice.capacidade:1000000}") long capacidade,
+                          @Value("${app.auth.indice.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        this.filtro = new FiltroBloom(capacidade, taxaFalsoPositivo);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        long[] total = {0};
+        try (Stream<Object[]> chaves = usuarioRepository.streamChaves()) {
+            chaves.forEach(chave -> {
+                adicionar((String) chave[0], (String) chave[1], (String) chave[2]);
+                total[0]++;
+            });
+        }
+        carregado = true;
+        log.info("Índice de usuários carregado: {} usuário(s) em {} ms", total[0], System.currentTimeMillis() - inicio);
+    }
+
+    @EventListener
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        if (event.tipo() != UsuarioAlteradoEvent.Tipo.REMOVIDO) {
+            adicionar(event.username(), event.email(), event.cpf());
+        }
+    }
+
+    /**
+     * @return {@code false} apenas quando nenhum dos três valores pode estar cadastrado
+     */
+    public boolean talvezExista(String username, String email, String cpf) {
+        return !carregado
+                || filtro.talvezContenha("u:" + username)
+                || filtro.talvezContenha("e:" + email)
+                || filtro.talvezContenha("c:" + cpf);
+    }
+
+    private void adicionar(String username, String email, String cpf) {
+        filtro.adicionar("u:" + username);
+        filtro.adicionar("e:" + email);
+        filtro.adicionar("c:" + cpf);
+    }
+}
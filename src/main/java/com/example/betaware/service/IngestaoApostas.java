@@ -0,0 +1,424 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.exception.RecursoNaoEncontradoException;
+import com.example.betaware.exception.ServicoSobrecarregadoException;
+import com.example.betaware.repository.ApostaRepository;
+import com.example.betaware.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ingestão assíncrona de apostas ({@code app.apostas.ingestao.assincrona=true}). A aposta validada
+ * recebe um id de um bloco reservado da {@code apostas_seq} e entra numa fila limitada sem locks; a
+ * requisição responde 202 em seguida. A escritora mantém um bloco de ids de reserva, então a
+ * requisição só vai ao banco buscar ids se a reserva acabar entre dois ciclos dela. Uma thread escritora acorda a cada
+ * {@code app.apostas.ingestao.intervalo} e grava o que estiver na fila em lotes de até
+ * {@code lote-maximo} apostas, uma transação (e um fsync) por lote, junto com as estatísticas.
+ *
+ * <p>Durabilidade: a aposta só está no banco depois do commit do seu lote; quem precisa dessa
+ * garantia usa o modo síncrono. Um encerramento normal grava o que estiver na fila (até
+ * {@code tempo-encerramento}); uma queda do processo perde as apostas aceitas e ainda não gravadas.
+ * Um lote que falha é repetido até {@code tentativas} vezes com espera crescente (enquanto isso a
+ * fila pode encher e novas apostas recebem 503 com Retry-After); depois as apostas são gravadas uma a
+ * uma e as que ainda falharem vão para o log de dead letter
+ * ({@code com.example.betaware.ingestao.dead-letter}) e para {@code betaware.ingestao.descartadas}.
+ *
+ * <p>As apostas aceitas ficam visíveis para o próprio usuário em {@link #pendentes(String)} até o
+ * commit, e a ETag da listagem muda no aceite, então o GET seguinte ao POST já as inclui. Eventos SSE
+ * só são publicados após o commit.
+ */
+@Slf4j
+@Component
+public class IngestaoApostas {
+
+    // incremento da apostas_seq (allocationSize de Aposta)
+    private static final int TAMANHO_BLOCO_IDS = 50;
+    private static final long ESPERA_MAXIMA_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final Logger DEAD_LETTER = LoggerFactory.getLogger("com.example.betaware.ingestao.dead-letter");
+
+    private static final String INSERIR = "INSERT INTO apostas " +
+            "(id, categoria, jogo, valor_centavos, resultado, data, usuario_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${app.apostas.ingestao.assincrona:false}")
+    private boolean habilitada;
+
+    @Value("${app.apostas.ingestao.fila-maxima:10000}")
+    private int filaMaxima;
+
+    @Value("${app.apostas.ingestao.intervalo:PT0.005S}")
+    private Duration intervalo;
+
+    @Value("${app.apostas.ingestao.lote-maximo:1000}")
+    private int loteMaximo;
+
+    @Value("${app.apostas.ingestao.tentativas:5}")
+    private int tentativas;
+
+    @Value("${app.apostas.ingestao.tempo-encerramento:PT30S}")
+    private Duration tempoEncerramento;
+
+    @Value("${app.apostas.ingestao.retry-after-segundos:1}")
+    private long retryAfterSegundos;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ApostaRepository apostaRepository;
+
+    @Autowired
+    private EstatisticaApostaService estatisticaService;
+
+    @Autowired
+    private VersaoApostasUsuario versaoApostas;
+
+    @Autowired
+    private HubApostas hubApostas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentLinkedQueue<Pendente> fila = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamanhoFila = new AtomicInteger();
+    // aceitas e ainda não gravadas nem descartadas, por username
+    private final ConcurrentHashMap<String, Map<Long, ApostaDTO>> pendentes = new ConcurrentHashMap<>();
+    private final AtomicInteger naoGravadas = new AtomicInteger();
+
+    // blocos de ids já reservados na apostas_seq, consumidos do primeiro; a escritora repõe a reserva
+    private final ConcurrentLinkedQueue<BlocoIds> blocosIds = new ConcurrentLinkedQueue<>();
+    // serializa só as idas ao banco para reservar blocos, nunca a entrega de ids
+    private final ReentrantLock reservaIds = new ReentrantLock();
+
+    private TransactionTemplate transacao;
+    private Thread escritor;
+    private volatile boolean ativo;
+
+    private Counter recusadas;
+    private Counter descartadas;
+    private Timer latenciaLote;
+
+    private record Pendente(ApostaDTO aposta, Long usuarioId) {
+    }
+
+    // faixa [proximo, fim) de ids de um valor da sequência
+    private static final class BlocoIds {
+        private final AtomicLong proximo;
+        private final long fim;
+
+        BlocoIds(long inicio, long fim) {
+            this.proximo = new AtomicLong(inicio);
+            this.fim = fim;
+        }
+
+        // -1 se o bloco acabou
+        long tomar() {
+            long id = proximo.getAndIncrement();
+            return id < fim ? id : -1;
+        }
+
+        boolean esgotado() {
+            return proximo.get() >= fim;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!habilitada) {
+            return;
+        }
+        transacao = new TransactionTemplate(transactionManager);
+        Gauge.builder("betaware.ingestao.fila", tamanhoFila, AtomicInteger::get)
+                .description("Apostas aceitas aguardando a thread escritora")
+                .register(meterRegistry);
+        recusadas = Counter.builder("betaware.ingestao.recusadas")
+                .description("Apostas recusadas com a fila de ingestão cheia")
+                .register(meterRegistry);
+        descartadas = Counter.builder("betaware.ingestao.descartadas")
+                .description("Apostas aceitas que não puderam ser gravadas (dead letter)")
+                .register(meterRegistry);
+        latenciaLote = Timer.builder("betaware.ingestao.lote")
+                .description("Tempo de gravação e commit de cada lote")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        ativo = true;
+        escritor = new Thread(this::executar, "ingestao-apostas");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Enfileira a aposta já validada e devolve-a com o id definitivo. Com a fila cheia falha
+     * imediatamente com {@link ServicoSobrecarregadoException} (503 com Retry-After).
+     */
+    public ApostaDTO aceitar(ApostaDTO apostaDTO, String username) {
+        Long usuarioId = usuarioRepository.findByUsername(username)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado"))
+                .getId();
+
+        // a vaga é reservada antes do id, para que uma recusa não consuma ids
+        if (tamanhoFila.incrementAndGet() > filaMaxima) {
+            tamanhoFila.decrementAndGet();
+            recusadas.increment();
+            throw new ServicoSobrecarregadoException("Muitas apostas simultâneas, tente novamente", retryAfterSegundos);
+        }
+        // lido depois de reservar a vaga: a escritora só termina ao ver ativo=false e a fila vazia,
+        // então ou esta aposta é vista por ela, ou esta leitura já vê ativo=false
+        if (!ativo) {
+            tamanhoFila.decrementAndGet();
+            throw new ServicoSobrecarregadoException("Ingestão de apostas indisponível", retryAfterSegundos);
+        }
+        ApostaDTO aceita;
+        try {
+            aceita = new ApostaDTO(proximoId(), apostaDTO.getCategoria(), apostaDTO.getJogo(), apostaDTO.getValor(),
+                    apostaDTO.getResultado(), apostaDTO.getData(), username);
+        } catch (RuntimeException e) {
+            tamanhoFila.decrementAndGet();
+            throw e;
+        }
+
+        naoGravadas.incrementAndGet();
+        pendentes.compute(username, (u, apostas) -> {
+            Map<Long, ApostaDTO> doUsuario = apostas != null ? apostas : new ConcurrentHashMap<>();
+            doUsuario.put(aceita.getId(), aceita);
+            return doUsuario;
+        });
+        // sem transação ativa: a ETag muda agora, e o próximo GET já vê a aposta pendente (e muda de
+        // novo no commit do lote)
+        versaoApostas.registrarAlteracao(usuarioId);
+        fila.offer(new Pendente(aceita, usuarioId));
+        return aceita;
+    }
+
+    /**
+     * Apostas do usuário aceitas e ainda não confirmadas no banco. Deve ser lido antes de consultar
+     * o banco: uma aposta só sai daqui depois do commit, então aparece em pelo menos um dos dois.
+     */
+    public Collection<ApostaDTO> pendentes(String username) {
+        Map<Long, ApostaDTO> doUsuario = pendentes.get(username);
+        return doUsuario == null ? List.of() : List.copyOf(doUsuario.values());
+    }
+
+    /**
+     * Espera até que todas as apostas aceitas tenham sido gravadas (ou descartadas).
+     *
+     * @return false se o limite passou antes disso
+     */
+    public boolean aguardarGravacao(Duration limite) {
+        long prazo = System.nanoTime() + limite.toNanos();
+        while (naoGravadas.get() > 0) {
+            if (System.nanoTime() - prazo > 0) {
+                return false;
+            }
+            LockSupport.parkNanos(intervalo.toNanos());
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        if (escritor == null) {
+            return;
+        }
+        ativo = false;
+        escritor.join(tempoEncerramento.toMillis());
+        if (naoGravadas.get() > 0) {
+            log.error("{} aposta(s) aceitas não foram gravadas antes do encerramento", naoGravadas.get());
+        }
+    }
+
+    private void executar() {
+        List<Pendente> lote = new ArrayList<>(loteMaximo);
+        // ativo é lido antes do tamanho da fila; ver o comentário em aceitar()
+        while (ativo || tamanhoFila.get() > 0) {
+            LockSupport.parkNanos(intervalo.toNanos());
+            reporReservaIds();
+            Pendente pendente;
+            while ((pendente = fila.poll()) != null) {
+                tamanhoFila.decrementAndGet();
+                lote.add(pendente);
+                if (lote.size() >= loteMaximo) {
+                    gravar(lote);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                gravar(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Grava o lote numa transação, repetindo até {@code app.apostas.ingestao.tentativas} vezes com
+     * espera crescente. Se ainda falhar, grava as apostas uma a uma e descarta as que falharem, para
+     * que um lote problemático não pare a escritora (e a fila) indefinidamente.
+     */
+    private void gravar(List<Pendente> lote) {
+        long esperaNanos = intervalo.toNanos();
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                latenciaLote.record(() -> transacao.executeWithoutResult(status -> inserir(lote)));
+                concluir(lote);
+                return;
+            } catch (RuntimeException e) {
+                if (e instanceof DataIntegrityViolationException || tentativa >= tentativas) {
+                    log.warn("Falha ao gravar lote de {} aposta(s) após {} tentativa(s), gravando uma a uma: {}",
+                            lote.size(), tentativa, e.getMessage());
+                    break;
+                }
+                log.warn("Falha ao gravar lote de {} aposta(s), nova tentativa em {} ms: {}",
+                        lote.size(), TimeUnit.NANOSECONDS.toMillis(esperaNanos), e.getMessage());
+                LockSupport.parkNanos(esperaNanos);
+                esperaNanos = Math.min(esperaNanos * 2, ESPERA_MAXIMA_NANOS);
+            }
+        }
+
+        for (Pendente pendente : lote) {
+            List<Pendente> unitario = List.of(pendente);
+            try {
+                transacao.executeWithoutResult(status -> inserir(unitario));
+            } catch (RuntimeException e) {
+                descartar(pendente, e);
+            }
+            concluir(unitario);
+        }
+    }
+
+    // a aposta completa vai para o log de dead letter, de onde pode ser reprocessada
+    private void descartar(Pendente pendente, RuntimeException e) {
+        descartadas.increment();
+        ApostaDTO aposta = pendente.aposta();
+        DEAD_LETTER.error("id={} usuarioId={} username={} categoria={} jogo={} valorCentavos={} resultado={} data={} erro={}",
+                aposta.getId(), pendente.usuarioId(), aposta.getUsername(), aposta.getCategoria(), aposta.getJogo(),
+                aposta.getValor(), aposta.getResultado(), aposta.getData(), e.getMessage());
+        versaoApostas.registrarAlteracao(pendente.usuarioId());
+    }
+
+    private void inserir(List<Pendente> lote) {
+        jdbcTemplate.batchUpdate(INSERIR, lote, lote.size(), (ps, pendente) -> {
+            ApostaDTO aposta = pendente.aposta();
+            ps.setLong(1, aposta.getId());
+            ps.setString(2, aposta.getCategoria());
+            ps.setString(3, aposta.getJogo());
+            ps.setLong(4, aposta.getValor());
+            ps.setString(5, aposta.getResultado().name());
+            ps.setObject(6, aposta.getData());
+            ps.setLong(7, pendente.usuarioId());
+        });
+
+        Map<Long, Map<String, DeltaEstatistica>> estatisticas = new HashMap<>();
+        List<ApostaDTO> publicar = new ArrayList<>(lote.size());
+        for (Pendente pendente : lote) {
+            ApostaDTO aposta = pendente.aposta();
+            estatisticas.computeIfAbsent(pendente.usuarioId(), u -> new HashMap<>())
+                    .computeIfAbsent(aposta.getCategoria(), c -> new DeltaEstatistica())
+                    .adicionarAposta(aposta.getResultado(), aposta.getValor());
+            publicar.add(aposta);
+        }
+        estatisticas.forEach((usuarioId, categorias) -> categorias.forEach((categoria, delta) ->
+                estatisticaService.registrar(usuarioId, categoria, delta)));
+        // as consultas que não incluem as pendentes (período, paginação) passam a ver o lote agora
+        versaoApostas.registrarAlteracao(estatisticas.keySet());
+        hubApostas.publicarAposCommit(publicar);
+    }
+
+    private void concluir(List<Pendente> lote) {
+        for (Pendente pendente : lote) {
+            pendentes.computeIfPresent(pendente.aposta().getUsername(), (u, doUsuario) -> {
+                doUsuario.remove(pendente.aposta().getId());
+                return doUsuario.isEmpty() ? null : doUsuario;
+            });
+        }
+        naoGravadas.addAndGet(-lote.size());
+    }
+
+    private long proximoId() {
+        while (true) {
+            BlocoIds bloco = blocosIds.peek();
+            if (bloco == null) {
+                // a reserva acabou antes de a escritora repor: esta requisição busca o bloco
+                reservarBlocoSeNecessario(1);
+                continue;
+            }
+            long id = bloco.tomar();
+            if (id >= 0) {
+                return id;
+            }
+            blocosIds.remove(bloco);
+        }
+    }
+
+    // chamado pela escritora a cada ciclo: mantém, além do bloco em uso, um bloco inteiro de reserva
+    private void reporReservaIds() {
+        try {
+            reservarBlocoSeNecessario(2);
+        } catch (RuntimeException e) {
+            // sem reserva as requisições buscam os ids elas mesmas; a escritora segue gravando
+            log.warn("Falha ao reservar bloco de ids de apostas: {}", e.getMessage());
+        }
+    }
+
+    private void reservarBlocoSeNecessario(int blocosDesejados) {
+        reservaIds.lock();
+        try {
+            blocosIds.removeIf(BlocoIds::esgotado);
+            while (blocosIds.size() < blocosDesejados) {
+                blocosIds.offer(reservarBloco());
+            }
+        } finally {
+            reservaIds.unlock();
+        }
+    }
+
+    // mesma faixa que o otimizador pooled do Hibernate usa para cada valor da sequência: (valor - 50, valor]
+    private BlocoIds reservarBloco() {
+        while (true) {
+            long valor = apostaRepository.reservarBlocoIds();
+            long inicio = valor - TAMANHO_BLOCO_IDS + 1;
+            // primeiro valor de uma sequência iniciada em 1: o Hibernate trata essa faixa de outro modo
+            if (inicio >= 1) {
+                return new BlocoIds(inicio, valor + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.RelatorioLiquidacaoDTO;
+import com.example.betaware.exception.NegocioException;
+import com.example.betaware.model.enums.ResultadoAposta;
+import com.example.betaware.repository.ApostaRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Liquida as apostas pendentes de um jogo. O trabalho é dividido em lotes de ids, cada um em sua
+ * própria transação: os ids são bloqueados, as estatísticas recebem o delta agregado por usuário e
+ * categoria e o resultado é gravado com um único UPDATE. Se a liquidação for interrompida, os lotes
+ * já confirmados permanecem e uma nova chamada continua de onde parou, pois só apostas PENDENTE são
+ * consideradas.
+ */
+@Slf4j
+@Timed("betaware.servico")
+@Service
+public class LiquidacaoService {
+
+    @Autowired
+    private ApostaRepository apostaRepository;
+
+    @Autowired
+    private EstatisticaApostaService estatisticaService;
+
+    @Autowired
+    private VersaoApostasUsuario versaoApostas;
+
+    @Autowired
+    private HubApostas hubApostas;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.apostas.liquidacao.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    public RelatorioLiquidacaoDTO liquidar(String jogo, ResultadoAposta resultado) {
+        if (resultado == ResultadoAposta.PENDENTE) {
+            throw new NegocioException("O resultado da liquidação deve ser GANHOU, PERDEU ou CANCELADA");
+        }
+
+        long inicio = System.currentTimeMillis();
+        RelatorioLiquidacaoDTO relatorio = new RelatorioLiquidacaoDTO();
+        relatorio.setJogo(jogo);
+        relatorio.setResultado(resultado);
+        Set<Long> usuarios = new HashSet<>();
+
+        long ultimoId = 0;
+        while (true) {
+            long aposId = ultimoId;
+            Lote lote = transactionTemplate.execute(status -> liquidarLote(jogo, resultado, aposId, usuarios));
+            if (lote == null) {
+                break;
+            }
+            ultimoId = lote.ultimoId();
+            relatorio.setLotes(relatorio.getLotes() + 1);
+            relatorio.setApostasLiquidadas(relatorio.getApostasLiquidadas() + lote.apostas());
+            relatorio.setValorTotal(relatorio.getValorTotal() + lote.valorCentavos());
+        }
+
+        relatorio.setUsuariosAfetados(usuarios.size());
+        relatorio.setDuracaoMs(System.currentTimeMillis() - inicio);
+        log.info("Liquidação de '{}' como {}: {} aposta(s) em {} lote(s), {} ms",
+                jogo, resultado, relatorio.getApostasLiquidadas(), relatorio.getLotes(), relatorio.getDuracaoMs());
+        return relatorio;
+    }
+
+    private Lote liquidarLote(String jogo, ResultadoAposta resultado, long aposId, Set<Long> usuarios) {
+        List<Long> ids = apostaRepository.findIdsPendentesPorJogo(jogo, aposId, PageRequest.of(0, tamanhoLote));
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        long valorCentavos = 0;
+        Set<Long> usuariosDoLote = new HashSet<>();
+        for (Object[] grupo : apostaRepository.somarPorUsuarioECategoria(ids)) {
+            Long usuarioId = (Long) grupo[0];
+            long quantidade = (Long) grupo[2];
+            long soma = (Long) grupo[3];
+            estatisticaService.registrar(usuarioId, (String) grupo[1],
+                    DeltaEstatistica.liquidacao(resultado, quantidade, soma));
+            usuariosDoLote.add(usuarioId);
+            valorCentavos += soma;
+        }
+        usuarios.addAll(usuariosDoLote);
+        versaoApostas.registrarAlteracao(usuariosDoLote);
+
+        int atualizadas = apostaRepository.liquidar(ids, resultado);
+        if (hubApostas.temAssinantes()) {
+            hubApostas.publicarAposCommit(apostaRepository.findDtoByIdIn(ids));
+        }
+        return new Lote(ids.get(ids.size() - 1), atualizadas, valorCentavos);
+    }
+
+    private record Lote(long ultimoId, int apostas, long valorCentavos) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.betaware.service;
+
+import com.example.betaware.exception.NegocioException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Limites das consultas por período, os mesmos nas versões servlet e reativa: o início não pode ser
+ * posterior ao fim e o intervalo vai até {@code app.apostas.periodo.intervalo-maximo}.
+ */
+@Component
+public class ValidadorPeriodo {
+
+    @Value("${app.apostas.periodo.intervalo-maximo:P31D}")
+    private Duration intervaloMaximo;
+
+    /**
+     * @throws NegocioException se o período estiver invertido ou for maior que o máximo
+     */
+    public void validar(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio.isAfter(fim)) {
+            throw new NegocioException("O início do período deve ser anterior ao fim");
+        }
+        if (Duration.between(inicio, fim).compareTo(intervaloMaximo) > 0) {
+            throw new NegocioException("O período máximo da consulta é de " + intervaloMaximo.toDays() + " dia(s)");
+        }
+    }
+}
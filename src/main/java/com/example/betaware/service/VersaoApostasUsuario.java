@@ -0,0 +1,73 @@
+package com.example.betaware.service;
+
+import com.example.betaware.exception.RecursoNaoEncontradoException;
+import com.example.betaware.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão das apostas de cada usuário, usada como ETag fraca nas listagens. A versão é incrementada
+ * depois do commit de qualquer transação que grave ou altere apostas do usuário; assim um GET que
+ * leu dados antigos nunca recebe a versão nova. O identificador da instância entra na ETag para que
+ * um reinício (que zera os contadores) não reaproveite ETags emitidas antes dele.
+ */
+@Component
+public class VersaoApostasUsuario {
+
+    private final String instancia = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final ConcurrentHashMap<Long, AtomicLong> versoes = new ConcurrentHashMap<>();
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    /**
+     * ETag atual das apostas do usuário. Resolve o usuário pelo cache de usuários, sem consultar apostas.
+     */
+    public String etag(String username) {
+        Long usuarioId = usuarioRepository.findByUsername(username)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado"))
+                .getId();
+        AtomicLong versao = versoes.get(usuarioId);
+        return "W/\"" + instancia + "-" + usuarioId + "-" + (versao == null ? 0 : versao.get()) + "\"";
+    }
+
+    public void registrarAlteracao(Long usuarioId) {
+        registrarAlteracao(List.of(usuarioId));
+    }
+
+    /**
+     * Incrementa a versão dos usuários quando a transação atual confirmar, ou imediatamente se não
+     * houver transação ativa. Em rollback nada muda.
+     */
+    public void registrarAlteracao(Collection<Long> usuarioIds) {
+        if (usuarioIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementar(usuarioIds);
+            return;
+        }
+        Set<Long> ids = Set.copyOf(usuarioIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                incrementar(ids);
+            }
+        });
+    }
+
+    private void incrementar(Collection<Long> usuarioIds) {
+        for (Long usuarioId : usuarioIds) {
+            versoes.computeIfAbsent(usuarioId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A V4 criou a {@code apostas_seq} começando em 1000, um valor fixo: numa base com apostas de id
+ * maior, os primeiros blocos repetiriam ids existentes. Esta migração reinicia a sequência depois do
+ * maior id de apostas. Cada valor {@code v} da sequência reserva os ids {@code (v - 50, v]} (otimizador
+ * pooled do Hibernate, allocationSize 50), então o próximo valor precisa ser pelo menos
+ * {@code MAX(id) + 50}; a sequência nunca volta para trás.
+ *
+ * <p>É uma migração Java porque o valor depende dos dados, e a V4 não é alterada para não mudar o
+ * checksum das bases em que já foi aplicada.
+ */
+public class V9__reiniciar_sequencia_apostas extends BaseJavaMigration {
+
+    private static final long TAMANHO_BLOCO = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection conexao = context.getConnection();
+        try (Statement statement = conexao.createStatement()) {
+            long maiorId = valor(statement, "SELECT COALESCE(MAX(id), 0) FROM apostas");
+            long proximo = valor(statement, "SELECT NEXT VALUE FOR apostas_seq");
+            long reinicio = Math.max(proximo, maiorId + TAMANHO_BLOCO);
+            statement.execute("ALTER SEQUENCE apostas_seq RESTART WITH " + reinicio);
+        }
+    }
+
+    private static long valor(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultado = statement.executeQuery(sql)) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+}
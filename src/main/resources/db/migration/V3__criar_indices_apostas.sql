@@ -0,0 +1,4 @@
+-- índices para as consultas por usuário/período e por resultado
+CREATE INDEX IF NOT EXISTS idx_apostas_usuario_data ON apostas (usuario_id, data);
+CREATE INDEX IF NOT EXISTS idx_apostas_data ON apostas (data);
+CREATE INDEX IF NOT EXISTS idx_apostas_usuario_resultado ON apostas (usuario_id, resultado);
@@ -0,0 +1,2 @@
+-- sequência com blocos de 50 ids (allocationSize da entidade) para permitir inserts em batch
+CREATE SEQUENCE IF NOT EXISTS apostas_seq START WITH 1000 INCREMENT BY 50;
@@ -0,0 +1,29 @@
+-- agregado por usuário e categoria, mantido incrementalmente pela aplicação
+CREATE TABLE IF NOT EXISTS estatisticas_apostas (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    usuario_id BIGINT NOT NULL,
+    categoria VARCHAR(100) NOT NULL,
+    quantidade BIGINT NOT NULL,
+    total_apostado DOUBLE NOT NULL,
+    quantidade_ganhou BIGINT NOT NULL,
+    quantidade_perdeu BIGINT NOT NULL,
+    quantidade_pendente BIGINT NOT NULL,
+    quantidade_cancelada BIGINT NOT NULL,
+    valor_ganho DOUBLE NOT NULL,
+    valor_perdido DOUBLE NOT NULL,
+    CONSTRAINT uk_estatisticas_usuario_categoria UNIQUE (usuario_id, categoria),
+    FOREIGN KEY (usuario_id) REFERENCES usuario(id)
+);
+
+INSERT INTO estatisticas_apostas (usuario_id, categoria, quantidade, total_apostado,
+        quantidade_ganhou, quantidade_perdeu, quantidade_pendente, quantidade_cancelada,
+        valor_ganho, valor_perdido)
+SELECT usuario_id, categoria, COUNT(*), SUM(valor),
+       SUM(CASE WHEN resultado = 'GANHOU' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN resultado = 'PERDEU' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN resultado = 'PENDENTE' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN resultado = 'CANCELADA' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN resultado = 'GANHOU' THEN valor ELSE 0 END),
+       SUM(CASE WHEN resultado = 'PERDEU' THEN valor ELSE 0 END)
+FROM apostas
+GROUP BY usuario_id, categoria;
@@ -0,0 +1,2 @@
+-- V2 inseriu o perfil 'USUARIO', que não existe no enum Perfil
+UPDATE usuario SET perfil = 'USER' WHERE perfil = 'USUARIO';
@@ -0,0 +1,19 @@
+-- valores monetários passam a ser inteiros em centavos (BIGINT) em vez de DOUBLE
+ALTER TABLE apostas ADD COLUMN valor_centavos BIGINT;
+UPDATE apostas SET valor_centavos = CAST(ROUND(valor * 100) AS BIGINT);
+ALTER TABLE apostas ALTER COLUMN valor_centavos SET NOT NULL;
+ALTER TABLE apostas DROP COLUMN valor;
+
+ALTER TABLE estatisticas_apostas ADD COLUMN total_apostado_centavos BIGINT;
+ALTER TABLE estatisticas_apostas ADD COLUMN valor_ganho_centavos BIGINT;
+ALTER TABLE estatisticas_apostas ADD COLUMN valor_perdido_centavos BIGINT;
+UPDATE estatisticas_apostas SET
+    total_apostado_centavos = CAST(ROUND(total_apostado * 100) AS BIGINT),
+    valor_ganho_centavos = CAST(ROUND(valor_ganho * 100) AS BIGINT),
+    valor_perdido_centavos = CAST(ROUND(valor_perdido * 100) AS BIGINT);
+ALTER TABLE estatisticas_apostas ALTER COLUMN total_apostado_centavos SET NOT NULL;
+ALTER TABLE estatisticas_apostas ALTER COLUMN valor_ganho_centavos SET NOT NULL;
+ALTER TABLE estatisticas_apostas ALTER COLUMN valor_perdido_centavos SET NOT NULL;
+ALTER TABLE estatisticas_apostas DROP COLUMN total_apostado;
+ALTER TABLE estatisticas_apostas DROP COLUMN valor_ganho;
+ALTER TABLE estatisticas_apostas DROP COLUMN valor_perdido;
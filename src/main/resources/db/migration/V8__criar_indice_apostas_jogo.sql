@@ -0,0 +1,2 @@
+-- liquidação: apostas pendentes de um jogo
+CREATE INDEX IF NOT EXISTS idx_apostas_jogo_resultado ON apostas (jogo, resultado);
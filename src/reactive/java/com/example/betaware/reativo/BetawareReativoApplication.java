@@ -0,0 +1,32 @@
+package com.example.betaware.reativo;
+
+import com.example.betaware.service.ValidadorPeriodo;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Variante reativa da API (WebFlux + R2DBC), com o mesmo contrato de {@code /v1/auth} e
+ * {@code /v1/apostas}. Só existe no build com {@code -P reactive} e sobe sempre com o profile
+ * Spring {@code reactive}. Todos os beans deste pacote são {@code @Profile("reactive")}, então a
+ * aplicação servlet os ignora mesmo quando compilada junto. Regras compartilhadas com a versão
+ * servlet, fora do pacote escaneado, entram por {@code @Import}.
+ *
+ * <pre>
+ * ./mvnw -P reactive spring-boot:run
+ * </pre>
+ */
+@Profile("reactive")
+@SpringBootApplication
+@EnableScheduling
+@Import(ValidadorPeriodo.class)
+public class BetawareReativoApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(BetawareReativoApplication.class)
+                .profiles("reactive")
+                .run(args);
+    }
+}
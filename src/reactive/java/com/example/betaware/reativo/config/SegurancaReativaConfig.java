@@ -0,0 +1,137 @@
+package com.example.betaware.reativo.config;
+
+import com.example.betaware.reativo.security.JwtReativoWebFilter;
+import com.example.betaware.reativo.service.UsuarioReativoDetailsService;
+import com.example.betaware.security.InMemoryRevocationStore;
+import com.example.betaware.security.JwtKeyRing;
+import com.example.betaware.security.JwtTokenCache;
+import com.example.betaware.security.JwtTokenProvider;
+import com.example.betaware.security.RevocationStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+/**
+ * Mesmas regras de {@link com.example.betaware.security.SecurityConfig} para o WebFlux: sem sessão,
+ * JWT no header Authorization e os mesmos endpoints públicos. O provider e o cache de tokens são
+ * os mesmos da versão servlet.
+ */
+@Profile("reactive")
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@Import({JwtTokenProvider.class, JwtTokenCache.class, JwtKeyRing.class, InMemoryRevocationStore.class})
+public class SegurancaReativaConfig {
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private RevocationStore revocationStore;
+
+    @Autowired
+    private UsuarioReativoDetailsService userDetailsService;
+
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${management.server.port:-1}")
+    private int portaGerenciamento;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(auth -> auth
+                        .pathMatchers(
+                                "/v1/auth/**",
+                                "/v1/health/**",
+                                "/.well-known/jwks.json",
+                                "/actuator/health/**"
+                        ).permitAll()
+                        .matchers(prometheusNaPortaDeGerenciamento()).permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(new JwtReativoWebFilter(tokenProvider, tokenCache, userDetailsService, revocationStore),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    // como na versão servlet: sem token só na porta de gerenciamento, que escuta numa interface interna
+    private ServerWebExchangeMatcher prometheusNaPortaDeGerenciamento() {
+        ServerWebExchangeMatcher prometheus = ServerWebExchangeMatchers.pathMatchers("/actuator/prometheus");
+        return exchange -> {
+            InetSocketAddress local = exchange.getRequest().getLocalAddress();
+            if (portaGerenciamento <= 0 || local == null || local.getPort() != portaGerenciamento) {
+                return ServerWebExchangeMatcher.MatchResult.notMatch();
+            }
+            return prometheus.matches(exchange);
+        };
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Arrays.asList(
+            "http://localhost:4200",
+            "http://localhost:8081",
+            "exp://localhost:8081",
+            "exp://192.168.0.*:8081",
+            "exp://10.0.2.2:8081"
+        ));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
+        // a verificação do BCrypt roda no scheduler boundedElastic (padrão do manager)
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        return manager;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder(bcryptStrength);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.betaware.reativo.controller;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.reativo.service.ApostaReativaService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mesmo contrato de {@link com.example.betaware.controller.ApostaController} para criar e listar
+ * apostas. Com {@code Accept: application/json} as listagens saem como array JSON; com
+ * {@code application/x-ndjson}, uma aposta por linha assim que é lida do banco.
+ */
+@Profile("reactive")
+@RestController
+@RequestMapping("/v1/apostas")
+public class ApostaReativaController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ApostaReativaService apostaService;
+
+    @PostMapping
+    public Mono<ResponseEntity<ApostaDTO>> criarAposta(
+            @Valid @RequestBody ApostaDTO apostaDTO,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return apostaService.criarAposta(apostaDTO, userDetails.getUsername()).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON})
+    public Flux<ApostaDTO> listarApostas(@AuthenticationPrincipal UserDetails userDetails) {
+        return apostaService.listarApostasPorUsuario(userDetails.getUsername());
+    }
+
+    @GetMapping(value = "/periodo", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON})
+    @PreAuthorize("hasRole('ADMIN')")
+    public Flux<ApostaDTO> listarApostasPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        return apostaService.listarApostasPorPeriodo(inicio, fim);
+    }
+
+    @GetMapping(value = "/usuario/periodo", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON})
+    public Flux<ApostaDTO> listarApostasPorUsuarioEPeriodo(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        return apostaService.listarApostasPorUsuarioEPeriodo(userDetails.getUsername(), inicio, fim);
+    }
+}
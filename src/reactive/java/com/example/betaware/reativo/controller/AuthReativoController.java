@@ -0,0 +1,45 @@
+package com.example.betaware.reativo.controller;
+
+import com.example.betaware.dto.JwtResponse;
+import com.example.betaware.dto.LoginRequest;
+import com.example.betaware.dto.RefreshTokenRequest;
+import com.example.betaware.dto.RegisterRequest;
+import com.example.betaware.reativo.service.AuthReativoService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@RestController
+@RequestMapping("/v1/auth")
+public class AuthReativoController {
+
+    @Autowired
+    private AuthReativoService authService;
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<JwtResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return authService.login(loginRequest).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<JwtResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return authService.renovar(request.getRefreshToken()).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        return authService.logout(request.getRefreshToken()).then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<Void>> register(@Valid @RequestBody RegisterRequest registerRequest) {
+        return authService.register(registerRequest).then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+    }
+}
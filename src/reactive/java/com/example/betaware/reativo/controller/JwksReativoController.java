@@ -0,0 +1,43 @@
+package com.example.betaware.reativo.controller;
+
+import com.example.betaware.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+
+/**
+ * Mesmo JWKS de {@link com.example.betaware.controller.JwksController}.
+ */
+@Profile("reactive")
+@RestController
+public class JwksReativoController {
+
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Value("${app.jwt.jwks.max-age:PT5M}")
+    private Duration maxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks(ServerWebExchange exchange) {
+        JwtKeyRing.Anel anel = keyRing.anel();
+        if (exchange.checkNotModified(anel.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(JWK_SET)
+                .eTag(anel.etag())
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .body(anel.jwks());
+    }
+}
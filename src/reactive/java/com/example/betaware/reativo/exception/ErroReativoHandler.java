@@ -0,0 +1,67 @@
+package com.example.betaware.reativo.exception;
+
+import com.example.betaware.exception.ErroResponse;
+import com.example.betaware.exception.NegocioException;
+import com.example.betaware.exception.RecursoNaoEncontradoException;
+import com.example.betaware.exception.UsuarioJaExisteException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mesmas respostas de erro de {@link com.example.betaware.exception.GlobalExceptionHandler}.
+ */
+@Profile("reactive")
+@RestControllerAdvice
+public class ErroReativoHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) ->
+                errors.put(((FieldError) error).getField(), error.getDefaultMessage()));
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<ErroResponse> handleBadCredentialsException(ServerWebExchange exchange) {
+        return erro(HttpStatus.UNAUTHORIZED, "Falha na autenticação", "Credenciais inválidas", exchange);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErroResponse> handleAccessDeniedException(ServerWebExchange exchange) {
+        return erro(HttpStatus.FORBIDDEN, "Acesso negado", "Usuário sem permissão para este recurso", exchange);
+    }
+
+    @ExceptionHandler(RecursoNaoEncontradoException.class)
+    public ResponseEntity<ErroResponse> handleRecursoNaoEncontradoException(RecursoNaoEncontradoException ex, ServerWebExchange exchange) {
+        return erro(HttpStatus.NOT_FOUND, "Recurso não encontrado", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(NegocioException.class)
+    public ResponseEntity<ErroResponse> handleNegocioException(NegocioException ex, ServerWebExchange exchange) {
+        return erro(HttpStatus.BAD_REQUEST, "Erro de regra de negócio", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(UsuarioJaExisteException.class)
+    public ResponseEntity<ErroResponse> handleUsuarioJaExisteException(UsuarioJaExisteException ex, ServerWebExchange exchange) {
+        return erro(HttpStatus.CONFLICT, "Usuário já cadastrado", ex.getMessage(), exchange);
+    }
+
+    private static ResponseEntity<ErroResponse> erro(HttpStatus status, String erro, String mensagem, ServerWebExchange exchange) {
+        ErroResponse corpo = new ErroResponse(LocalDateTime.now(), status.value(), erro, mensagem,
+                exchange.getRequest().getPath().value());
+        return ResponseEntity.status(status).body(corpo);
+    }
+}
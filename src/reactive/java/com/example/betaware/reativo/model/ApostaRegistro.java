@@ -0,0 +1,32 @@
+package com.example.betaware.reativo.model;
+
+import com.example.betaware.model.enums.ResultadoAposta;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da tabela {@code apostas} para o R2DBC. O id vem de {@code apostas_seq} antes do insert.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table("apostas")
+public class ApostaRegistro {
+
+    @Id
+    private Long id;
+    private String categoria;
+    private String jogo;
+    // em centavos
+    private Long valorCentavos;
+    private ResultadoAposta resultado;
+    private LocalDateTime data;
+    private Long usuarioId;
+}
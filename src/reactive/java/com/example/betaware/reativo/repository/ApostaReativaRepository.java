@@ -0,0 +1,38 @@
+package com.example.betaware.reativo.repository;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.reativo.model.ApostaRegistro;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mesmas consultas de {@link com.example.betaware.repository.ApostaRepository}, em SQL, projetadas
+ * direto no {@link ApostaDTO} e entregues linha a linha.
+ */
+public interface ApostaReativaRepository extends ReactiveCrudRepository<ApostaRegistro, Long> {
+
+    String PROJECAO_DTO = "SELECT a.id, a.categoria, a.jogo, a.valor_centavos AS valor, a.resultado, a.data, u.username " +
+            "FROM apostas a JOIN usuario u ON u.id = a.usuario_id ";
+
+    // a sequência anda em blocos de 50 (allocationSize do Hibernate); o valor lido vira o id e o resto do bloco fica sem uso
+    @Query("SELECT NEXT VALUE FOR apostas_seq")
+    Mono<Long> proximoId();
+
+    @Query(PROJECAO_DTO + "WHERE u.username = :username")
+    Flux<ApostaDTO> findDtoByUsername(@Param("username") String username);
+
+    @Query(PROJECAO_DTO + "WHERE u.username = :username AND a.data BETWEEN :inicio AND :fim")
+    Flux<ApostaDTO> findDtoByUsernameAndDataBetween(@Param("username") String username,
+                                                    @Param("inicio") LocalDateTime inicio,
+                                                    @Param("fim") LocalDateTime fim);
+
+    @Query(PROJECAO_DTO + "WHERE a.data BETWEEN :inicio AND :fim ORDER BY a.data, a.id LIMIT :limite")
+    Flux<ApostaDTO> findDtoByDataBetween(@Param("inicio") LocalDateTime inicio,
+                                         @Param("fim") LocalDateTime fim,
+                                         @Param("limite") int limite);
+}
@@ -0,0 +1,16 @@
+package com.example.betaware.reativo.repository;
+
+import com.example.betaware.reativo.model.UsuarioRegistro;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface UsuarioReativoRepository extends ReactiveCrudRepository<UsuarioRegistro, Long> {
+
+    Mono<UsuarioRegistro> findByUsername(String username);
+
+    Mono<Boolean> existsByUsername(String username);
+
+    Mono<Boolean> existsByEmail(String email);
+
+    Mono<Boolean> existsByCpf(String cpf);
+}
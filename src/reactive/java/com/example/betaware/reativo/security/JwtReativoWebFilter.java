@@ -0,0 +1,92 @@
+package com.example.betaware.reativo.security;
+
+import com.example.betaware.reativo.model.UsuarioRegistro;
+import com.example.betaware.security.JwtTokenCache;
+import com.example.betaware.security.JwtTokenProvider;
+import com.example.betaware.security.RevocationStore;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.nio.CharBuffer;
+
+/**
+ * Equivalente reativo de {@link com.example.betaware.security.JwtAuthenticationFilter}: mesmo cache
+ * de tokens, mesma validação, e o usuário só é buscado no banco quando o token não está no cache.
+ * Não é um bean, para não ser registrado também fora da cadeia de segurança.
+ */
+@Slf4j
+public class JwtReativoWebFilter implements WebFilter {
+
+    private final JwtTokenProvider tokenProvider;
+    private final JwtTokenCache tokenCache;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final RevocationStore revocationStore;
+
+    public JwtReativoWebFilter(JwtTokenProvider tokenProvider, JwtTokenCache tokenCache,
+                               ReactiveUserDetailsService userDetailsService, RevocationStore revocationStore) {
+        this.tokenProvider = tokenProvider;
+        this.tokenCache = tokenCache;
+        this.userDetailsService = userDetailsService;
+        this.revocationStore = revocationStore;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        CharSequence jwt = getJwtFromRequest(exchange.getRequest());
+        if (jwt == null) {
+            return chain.filter(exchange);
+        }
+
+        return resolvePrincipal(jwt)
+                .map(userDetails -> ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .onErrorResume(ex -> {
+                    log.error("Não foi possível definir a autenticação do usuário no contexto de segurança", ex);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Context.empty())
+                .flatMap(contexto -> chain.filter(exchange).contextWrite(contexto));
+    }
+
+    private Mono<UserDetails> resolvePrincipal(CharSequence jwt) {
+        return Mono.defer(() -> {
+            JwtTokenCache.CachedToken cached = tokenCache.get(jwt);
+            if (cached != null) {
+                return revogado(cached.claims()) ? Mono.<UserDetails>empty() : Mono.just(cached.principal());
+            }
+
+            JwtTokenProvider.Resultado resultado = tokenProvider.parse(jwt);
+            if (!resultado.valido() || JwtTokenProvider.isRefreshToken(resultado.claims()) || revogado(resultado.claims())) {
+                return Mono.empty();
+            }
+            long versao = tokenCache.version();
+            return userDetailsService.findByUsername(resultado.claims().getSubject())
+                    .map(userDetails -> tokenCache.put(jwt, resultado.claims(), userDetails,
+                            userDetails instanceof UsuarioRegistro usuario ? usuario.getId() : null, versao).principal());
+        });
+    }
+
+    private boolean revogado(Claims claims) {
+        return revocationStore.revogado(claims.getId())
+                || revocationStore.revogado(claims.get(JwtTokenProvider.CLAIM_SESSAO, String.class));
+    }
+
+    private CharSequence getJwtFromRequest(ServerHttpRequest request) {
+        String bearerToken = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.length() > 7 && bearerToken.startsWith("Bearer ")) {
+            return CharBuffer.wrap(bearerToken, 7, bearerToken.length());
+        }
+        return null;
+    }
+}
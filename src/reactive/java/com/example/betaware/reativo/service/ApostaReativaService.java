@@ -0,0 +1,148 @@
+package com.example.betaware.reativo.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.exception.NegocioException;
+import com.example.betaware.exception.RecursoNaoEncontradoException;
+import com.example.betaware.model.enums.ResultadoAposta;
+import com.example.betaware.reativo.model.ApostaRegistro;
+import com.example.betaware.reativo.model.UsuarioRegistro;
+import com.example.betaware.reativo.repository.ApostaReativaRepository;
+import com.example.betaware.reativo.repository.UsuarioReativoRepository;
+import com.example.betaware.service.ValidadorPeriodo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contraparte reativa de {@link com.example.betaware.service.ApostaService}: mesmas regras, com as
+ * listagens devolvidas como {@link Flux} à medida que as linhas chegam do banco.
+ */
+@Profile("reactive")
+@Service
+public class ApostaReativaService {
+
+    // mesmo MERGE de EstatisticaApostaRepository.somar
+    private static final String SOMAR_ESTATISTICA = "MERGE INTO estatisticas_apostas e " +
+            "USING (SELECT CAST(:usuarioId AS BIGINT) AS usuario_id, CAST(:categoria AS VARCHAR(100)) AS categoria) s " +
+            "ON e.usuario_id = s.usuario_id AND e.categoria = s.categoria " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "quantidade = e.quantidade + 1, " +
+            "total_apostado_centavos = e.total_apostado_centavos + :valor, " +
+            "quantidade_ganhou = e.quantidade_ganhou + :ganhou, " +
+            "quantidade_perdeu = e.quantidade_perdeu + :perdeu, " +
+            "quantidade_pendente = e.quantidade_pendente + :pendente, " +
+            "quantidade_cancelada = e.quantidade_cancelada + :cancelada, " +
+            "valor_ganho_centavos = e.valor_ganho_centavos + :valorGanho, " +
+            "valor_perdido_centavos = e.valor_perdido_centavos + :valorPerdido " +
+            "WHEN NOT MATCHED THEN INSERT (usuario_id, categoria, quantidade, total_apostado_centavos, " +
+            "quantidade_ganhou, quantidade_perdeu, quantidade_pendente, quantidade_cancelada, valor_ganho_centavos, valor_perdido_centavos) " +
+            "VALUES (s.usuario_id, s.categoria, 1, :valor, :ganhou, :perdeu, :pendente, :cancelada, :valorGanho, :valorPerdido)";
+
+    @Autowired
+    private ApostaReativaRepository apostaRepository;
+
+    @Autowired
+    private UsuarioReativoRepository usuarioRepository;
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ValidadorPeriodo validadorPeriodo;
+
+    @Value("${app.apostas.periodo.linhas-maximas:10000}")
+    private int linhasMaximasPeriodo;
+
+    @Transactional
+    public Mono<ApostaDTO> criarAposta(ApostaDTO apostaDTO, String username) {
+        return usuarioRepository.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new RecursoNaoEncontradoException("Usuário não encontrado")))
+                .flatMap(usuario -> apostaRepository.proximoId()
+                        .flatMap(id -> template.insert(novaAposta(id, apostaDTO, usuario)))
+                        .flatMap(aposta -> registrarEstatistica(aposta).thenReturn(converterParaDTO(aposta, usuario))));
+    }
+
+    public Flux<ApostaDTO> listarApostasPorUsuario(String username) {
+        return apostaRepository.findDtoByUsername(username);
+    }
+
+    /**
+     * Mesmos limites de intervalo e de linhas da versão servlet. Para saber se o limite de linhas
+     * foi excedido a lista precisa ser lida até o fim, então aqui o resultado é materializado.
+     */
+    public Flux<ApostaDTO> listarApostasPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        try {
+            validadorPeriodo.validar(inicio, fim);
+        } catch (NegocioException e) {
+            return Flux.error(e);
+        }
+
+        return apostaRepository.findDtoByDataBetween(inicio, fim, linhasMaximasPeriodo + 1)
+                .collectList()
+                .flatMapMany(apostas -> apostas.size() > linhasMaximasPeriodo
+                        ? Flux.error(new NegocioException("O período tem mais de " + linhasMaximasPeriodo
+                                + " apostas; reduza o intervalo ou use /v1/apostas/exportacao"))
+                        : Flux.fromIterable(apostas));
+    }
+
+    public Flux<ApostaDTO> listarApostasPorUsuarioEPeriodo(String username, LocalDateTime inicio, LocalDateTime fim) {
+        try {
+            validadorPeriodo.validar(inicio, fim);
+        } catch (NegocioException e) {
+            return Flux.error(e);
+        }
+        return apostaRepository.findDtoByUsernameAndDataBetween(username, inicio, fim);
+    }
+
+    private Mono<Long> registrarEstatistica(ApostaRegistro aposta) {
+        ResultadoAposta resultado = aposta.getResultado();
+        long valor = aposta.getValorCentavos();
+        return databaseClient.sql(SOMAR_ESTATISTICA)
+                .bind("usuarioId", aposta.getUsuarioId())
+                .bind("categoria", aposta.getCategoria())
+                .bind("valor", valor)
+                .bind("ganhou", resultado == ResultadoAposta.GANHOU ? 1L : 0L)
+                .bind("perdeu", resultado == ResultadoAposta.PERDEU ? 1L : 0L)
+                .bind("pendente", resultado == ResultadoAposta.PENDENTE ? 1L : 0L)
+                .bind("cancelada", resultado == ResultadoAposta.CANCELADA ? 1L : 0L)
+                .bind("valorGanho", resultado == ResultadoAposta.GANHOU ? valor : 0L)
+                .bind("valorPerdido", resultado == ResultadoAposta.PERDEU ? valor : 0L)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private ApostaRegistro novaAposta(Long id, ApostaDTO apostaDTO, UsuarioRegistro usuario) {
+        return ApostaRegistro.builder()
+                .id(id)
+                .categoria(apostaDTO.getCategoria())
+                .jogo(apostaDTO.getJogo())
+                .valorCentavos(apostaDTO.getValor())
+                .resultado(apostaDTO.getResultado())
+                .data(apostaDTO.getData())
+                .usuarioId(usuario.getId())
+                .build();
+    }
+
+    private ApostaDTO converterParaDTO(ApostaRegistro aposta, UsuarioRegistro usuario) {
+        ApostaDTO dto = new ApostaDTO();
+        dto.setId(aposta.getId());
+        dto.setCategoria(aposta.getCategoria());
+        dto.setJogo(aposta.getJogo());
+        dto.setValor(aposta.getValorCentavos());
+        dto.setResultado(aposta.getResultado());
+        dto.setData(aposta.getData());
+        dto.setUsername(usuario.getUsername());
+        return dto;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.betaware.reativo.service;
+
+import com.example.betaware.dto.JwtResponse;
+import com.example.betaware.dto.LoginRequest;
+import com.example.betaware.dto.RegisterRequest;
+import com.example.betaware.exception.UsuarioJaExisteException;
+import com.example.betaware.model.enums.Perfil;
+import com.example.betaware.reativo.model.UsuarioRegistro;
+import com.example.betaware.reativo.repository.UsuarioReativoRepository;
+import com.example.betaware.security.JwtTokenProvider;
+import com.example.betaware.security.RevocationStore;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Contraparte reativa de {@link com.example.betaware.service.AuthService}. O BCrypt continua
+ * bloqueante e roda no scheduler {@code boundedElastic}, fora do event loop, assim como as
+ * revogações, que podem ser gravadas em arquivo.
+ */
+@Slf4j
+@Profile("reactive")
+@Service
+public class AuthReativoService {
+
+    @Autowired
+    private ReactiveAuthenticationManager authenticationManager;
+
+    @Autowired
+    private UsuarioReativoRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private RevocationStore revocationStore;
+
+    public Mono<JwtResponse> login(LoginRequest loginRequest) {
+        return authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getSenha()))
+                .map(authentication -> emitirTokens((UsuarioRegistro) authentication.getPrincipal(), tokenProvider.novaSessao()));
+    }
+
+    /**
+     * Mesma regra de {@link com.example.betaware.service.AuthService#renovar}: o refresh token vale
+     * uma única vez, e reapresentá-lo revoga a sessão inteira.
+     */
+    public Mono<JwtResponse> renovar(String refreshToken) {
+        return Mono.fromCallable(() -> {
+                    Claims claims = claimsDoRefreshToken(refreshToken);
+                    String sessao = claims.get(JwtTokenProvider.CLAIM_SESSAO, String.class);
+                    if (revocationStore.revogado(sessao)) {
+                        throw new BadCredentialsException("Sessão revogada");
+                    }
+                    if (!revocationStore.revogar(claims.getId(), claims.getExpiration().getTime())) {
+                        log.warn("Refresh token reutilizado; revogando a sessão de {}", claims.getSubject());
+                        revogarSessao(sessao);
+                        throw new BadCredentialsException("Refresh token já utilizado");
+                    }
+                    return claims;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(claims -> usuarioRepository.findByUsername(claims.getSubject())
+                        .switchIfEmpty(Mono.error(new BadCredentialsException("Usuário não encontrado")))
+                        .map(usuario -> emitirTokens(usuario, claims.get(JwtTokenProvider.CLAIM_SESSAO, String.class))));
+    }
+
+    public Mono<Void> logout(String refreshToken) {
+        return Mono.fromRunnable(() -> revogarSessao(
+                        claimsDoRefreshToken(refreshToken).get(JwtTokenProvider.CLAIM_SESSAO, String.class)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    public Mono<Void> register(RegisterRequest registerRequest) {
+        return verificarLivre(usuarioRepository.existsByUsername(registerRequest.getUsername()), "Username já está em uso")
+                .then(verificarLivre(usuarioRepository.existsByEmail(registerRequest.getEmail()), "Email já está em uso"))
+                .then(verificarLivre(usuarioRepository.existsByCpf(registerRequest.getCpf()), "CPF já está em uso"))
+                .then(Mono.fromCallable(() -> passwordEncoder.encode(registerRequest.getSenha()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(senha -> usuarioRepository.save(UsuarioRegistro.builder()
+                        .username(registerRequest.getUsername())
+                        .nome(registerRequest.getNome())
+                        .cpf(registerRequest.getCpf())
+                        .cep(registerRequest.getCep())
+                        .endereco(registerRequest.getEndereco())
+                        .senha(senha)
+                        .email(registerRequest.getEmail())
+                        .perfil(Perfil.USER)
+                        .build()))
+                // outro cadastro com os mesmos dados foi gravado entre a verificação e o insert
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new UsuarioJaExisteException("Username, email ou CPF já está em uso"))
+                .then();
+    }
+
+    private Claims claimsDoRefreshToken(String refreshToken) {
+        JwtTokenProvider.Resultado resultado = tokenProvider.parse(refreshToken);
+        if (!resultado.valido() || !JwtTokenProvider.isRefreshToken(resultado.claims())) {
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+        return resultado.claims();
+    }
+
+    private void revogarSessao(String sessao) {
+        revocationStore.revogar(sessao, System.currentTimeMillis() + tokenProvider.getRefreshExpirationInMs());
+    }
+
+    private JwtResponse emitirTokens(UsuarioRegistro usuario, String sessao) {
+        JwtResponse jwtResponse = new JwtResponse();
+        jwtResponse.setNome(usuario.getNome());
+        jwtResponse.setToken(tokenProvider.generateToken(usuario.getUsername(), sessao));
+        jwtResponse.setRefreshToken(tokenProvider.generateRefreshToken(usuario.getUsername(), sessao));
+        jwtResponse.setExpiraEmSegundos(tokenProvider.getJwtExpirationInMs() / 1000);
+        jwtResponse.setUsername(usuario.getUsername());
+        jwtResponse.setPerfil(usuario.getPerfil().name());
+        return jwtResponse;
+    }
+
+    private static Mono<Void> verificarLivre(Mono<Boolean> emUso, String mensagem) {
+        return emUso.flatMap(existe -> existe ? Mono.<Void>error(new UsuarioJaExisteException(mensagem)) : Mono.<Void>empty());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.betaware.reativo.service;
+
+import com.example.betaware.reativo.repository.UsuarioReativoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@Service
+public class UsuarioReativoDetailsService implements ReactiveUserDetailsService {
+
+    @Autowired
+    private UsuarioReativoRepository usuarioRepository;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return usuarioRepository.findByUsername(username).cast(UserDetails.class);
+    }
+}
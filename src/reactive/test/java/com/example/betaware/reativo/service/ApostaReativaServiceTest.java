@@ -0,0 +1,61 @@
+package com.example.betaware.reativo.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.exception.NegocioException;
+import com.example.betaware.reativo.repository.ApostaReativaRepository;
+import com.example.betaware.service.ValidadorPeriodo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ApostaReativaServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private ApostaReativaService apostaService;
+    private ApostaReativaRepository apostaRepository;
+
+    @BeforeEach
+    void setUp() {
+        apostaRepository = mock(ApostaReativaRepository.class);
+        ValidadorPeriodo validadorPeriodo = new ValidadorPeriodo();
+        ReflectionTestUtils.setField(validadorPeriodo, "intervaloMaximo", Duration.ofDays(31));
+
+        apostaService = new ApostaReativaService();
+        ReflectionTestUtils.setField(apostaService, "apostaRepository", apostaRepository);
+        ReflectionTestUtils.setField(apostaService, "validadorPeriodo", validadorPeriodo);
+    }
+
+    @Test
+    void periodoDoUsuarioAcimaDoMaximoERecusadoSemConsultar() {
+        assertThatThrownBy(() -> apostaService.listarApostasPorUsuarioEPeriodo("usuario1", INICIO, INICIO.plusDays(32))
+                .collectList().block())
+                .isInstanceOf(NegocioException.class)
+                .hasMessageContaining("31 dia(s)");
+        assertThatThrownBy(() -> apostaService.listarApostasPorUsuarioEPeriodo("usuario1", INICIO, INICIO.minusDays(1))
+                .collectList().block())
+                .isInstanceOf(NegocioException.class);
+        verifyNoInteractions(apostaRepository);
+    }
+
+    @Test
+    void periodoDoUsuarioDentroDoMaximoEConsultado() {
+        ApostaDTO aposta = ApostaDTO.builder().id(1L).username("usuario1").data(INICIO.plusDays(1)).build();
+        when(apostaRepository.findDtoByUsernameAndDataBetween("usuario1", INICIO, INICIO.plusDays(31)))
+                .thenReturn(Flux.just(aposta));
+
+        assertThat(apostaService.listarApostasPorUsuarioEPeriodo("usuario1", INICIO, INICIO.plusDays(31))
+                .collectList().block())
+                .containsExactly(aposta);
+    }
+}
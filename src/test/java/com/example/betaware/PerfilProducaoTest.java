@@ -0,0 +1,145 @@
+package com.example.betaware;
+
+import ch.qos.logback.classic.LoggerContext;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sobe a aplicação com o profile prod, com banco, chaves e revogações num diretório temporário e o
+ * actuator numa porta de gerenciamento aleatória. O contexto é fechado ao fim da classe para que o
+ * próximo teste volte à configuração de log padrão.
+ */
+@AutoConfigureObservability
+@DirtiesContext
+@ExtendWith(OutputCaptureExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.server.port=0")
+@ActiveProfiles("prod")
+class PerfilProducaoTest {
+
+    private static final Path DIRETORIO = criarDiretorio();
+
+    @LocalServerPort
+    private int porta;
+
+    @LocalManagementPort
+    private int portaGerenciamento;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void diretorioDosDados(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.diretorio", DIRETORIO::toString);
+    }
+
+    // outro contexto de teste já pode ter configurado o logback nesta JVM; sem isso o Spring Boot não
+    // recarrega o logback-spring.xml com o profile prod
+    @BeforeAll
+    static void reiniciarLog() {
+        LoggingSystem.get(PerfilProducaoTest.class.getClassLoader()).cleanUp();
+    }
+
+    @AfterAll
+    static void removerDiretorio() throws IOException {
+        FileSystemUtils.deleteRecursively(DIRETORIO);
+    }
+
+    @Test
+    void logsSaemEmJsonPeloAppenderAssincrono(CapturedOutput saida) throws InterruptedException {
+        LoggerContext contexto = (LoggerContext) LoggerFactory.getILoggerFactory();
+        assertThat(contexto.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("JSON"))
+                .isInstanceOf(LoggingEventAsyncDisruptorAppender.class)
+                .matches(appender -> appender.isStarted());
+
+        String marca = "evento-" + UUID.randomUUID();
+        LoggerFactory.getLogger(PerfilProducaoTest.class).info(marca);
+
+        // o evento é escrito pela thread do disruptor, não pela que registrou
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!saida.getOut().contains(marca) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        String linha = saida.getOut().lines().filter(l -> l.contains(marca)).findFirst().orElse("");
+        assertThat(linha)
+                .startsWith("{")
+                .contains("\"message\":\"" + marca + "\"")
+                .contains("\"level\":\"INFO\"")
+                .contains("\"aplicacao\":\"betaware-api\"")
+                .doesNotContain("tamanhoBuffer");
+    }
+
+    @Test
+    void prometheusNaPortaDeGerenciamentoDispensaToken() {
+        ResponseEntity<String> resposta = gerenciamento("/actuator/prometheus");
+
+        assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resposta.getBody()).contains("# TYPE jvm_memory_used_bytes gauge");
+    }
+
+    @Test
+    void healthNaPortaDeGerenciamentoDispensaToken() {
+        ResponseEntity<String> resposta = gerenciamento("/actuator/health");
+
+        assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resposta.getBody()).contains("\"status\":\"UP\"");
+    }
+
+    @Test
+    void demaisEndpointsNaPortaDeGerenciamentoExigemAdmin() {
+        assertThat(gerenciamento("/actuator/metrics").getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void caminhoForaDoActuatorNaPortaDeGerenciamentoNaoQuebraACadeia() {
+        assertThat(gerenciamento("/qualquer").getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void portaDaApiNaoServeOActuator() {
+        ResponseEntity<String> resposta = restTemplate.getForEntity(
+                "http://127.0.0.1:" + porta + "/api/actuator/prometheus", String.class);
+
+        assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    private ResponseEntity<String> gerenciamento(String caminho) {
+        return restTemplate.getForEntity("http://127.0.0.1:" + portaGerenciamento + caminho, String.class);
+    }
+
+    private static Path criarDiretorio() {
+        try {
+            return Files.createTempDirectory("betaware-prod");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.betaware.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CentavosDeserializerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void criarValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void fecharValidator() {
+        validatorFactory.close();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "12, 1200",
+            "12.5, 1250",
+            "12.50, 1250",
+            "12.500, 1250",
+            "0.01, 1",
+            "0.1, 10",
+            "0.29, 29",
+            "1.15, 115",
+            "19.99, 1999",
+            "'\"12.50\"', 1250",
+            "'\" 0.07 \"', 7"
+    })
+    void converteDecimalParaCentavosSemErroDeArredondamento(String json, long centavos) throws Exception {
+        assertThat(valor(json)).isEqualTo(centavos);
+    }
+
+    @Test
+    void somaDeCentavosNaoAcumulaErro() throws Exception {
+        long total = 0;
+        for (int i = 0; i < 1_000; i++) {
+            total += valor("0.1");
+        }
+
+        assertThat(total).isEqualTo(10_000);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.005", "12.345", "0.001", "\"12.501\"", "1e-3"})
+    void rejeitaMaisDeDuasCasasDecimaisEmVezDeArredondar(String json) {
+        assertThatThrownBy(() -> valor(json))
+                .isInstanceOf(InvalidFormatException.class)
+                .hasMessageContaining("no máximo duas casas decimais");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"abc\"", "\"\"", "92233720368547758.08", "92233720368547759"})
+    void rejeitaTextoInvalidoEEstouro(String json) {
+        assertThatThrownBy(() -> valor(json)).isInstanceOf(InvalidFormatException.class);
+    }
+
+    @Test
+    void rejeitaTiposQueNaoSaoNumeroNemTexto() {
+        assertThatThrownBy(() -> valor("true")).isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> valor("[12.5]")).isInstanceOf(MismatchedInputException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-12.50", "-0.01", "0", "0.00", "\"-1\""})
+    void valorNegativoOuZeroNaoPassaNaValidacao(String json) throws Exception {
+        ApostaDTO aposta = aposta(json);
+
+        Set<ConstraintViolation<ApostaDTO>> violacoes = validator.validateProperty(aposta, "valor");
+
+        assertThat(violacoes).isNotEmpty()
+                .extracting(ConstraintViolation::getMessage).containsOnly("O valor deve ser positivo");
+    }
+
+    @Test
+    void serializacaoDevolveODecimalComDuasCasas() throws Exception {
+        ApostaDTO aposta = aposta("12.5");
+
+        String json = MAPPER.writeValueAsString(aposta);
+
+        assertThat(json).contains("\"valor\":12.50");
+        assertThat(MAPPER.readValue(json, ApostaDTO.class).getValor()).isEqualTo(1250L);
+    }
+
+    private static Long valor(String json) throws Exception {
+        return aposta(json).getValor();
+    }
+
+    private static ApostaDTO aposta(String valor) throws Exception {
+        return MAPPER.readValue("{\"categoria\":\"Futebol\",\"jogo\":\"A x B\",\"valor\":" + valor
+                + ",\"resultado\":\"PENDENTE\",\"data\":\"2024-01-01T10:00:00\"}", ApostaDTO.class);
+    }
+}
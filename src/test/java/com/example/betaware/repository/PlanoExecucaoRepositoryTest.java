@@ -0,0 +1,267 @@
+package com.example.betaware.repository;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.model.enums.ResultadoAposta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chama cada consulta declarada em {@link ApostaRepository} e {@link UsuarioRepository}, captura no
+ * {@link DataSource} o SQL que o Hibernate realmente gerou, com os parâmetros, e roda EXPLAIN do H2
+ * sobre ele com a base populada; falha se algum comando cair em table scan. Leituras completas
+ * intencionais ficam em {@code LEITURAS_COMPLETAS}.
+ *
+ * <p>Por padrão a base tem {@value #LINHAS_PADRAO} apostas, o bastante para o otimizador preferir os
+ * índices; para conferir com o volume de produção, rode com {@code -Dbetaware.plano.linhas=1000000}.
+ */
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanoExecucaoRepositoryTest {
+
+    private static final int LINHAS_PADRAO = 50_000;
+    private static final int LINHAS = Integer.getInteger("betaware.plano.linhas", LINHAS_PADRAO);
+    private static final int USUARIOS = 1_000;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final List<Long> IDS = List.of(42L, 4042L, 8042L);
+
+    private static final Map<String, Consumer<Repositorios>> CONSULTAS = new LinkedHashMap<>();
+
+    static {
+        CONSULTAS.put("ApostaRepository.findDtoByUsername",
+                r -> r.apostas().findDtoByUsername("usuario42"));
+        CONSULTAS.put("ApostaRepository.findDtoByUsernameAndDataBetween",
+                r -> r.apostas().findDtoByUsernameAndDataBetween("usuario42", INICIO, INICIO.plusDays(7)));
+        CONSULTAS.put("ApostaRepository.findDtoByDataBetween",
+                r -> r.apostas().findDtoByDataBetween(INICIO, INICIO.plusHours(6), PageRequest.of(0, 10_001)));
+        CONSULTAS.put("ApostaRepository.findDtoByUsernameOrdenado",
+                r -> r.apostas().findDtoByUsernameOrdenado("usuario42", PageRequest.of(0, 51)));
+        CONSULTAS.put("ApostaRepository.findDtoByUsernameAposCursor",
+                r -> r.apostas().findDtoByUsernameAposCursor("usuario42", INICIO, 100L, PageRequest.of(0, 51)));
+        CONSULTAS.put("ApostaRepository.findDtoByDataIntervalo",
+                r -> r.apostas().findDtoByDataIntervalo(INICIO, INICIO.plusHours(1), PageRequest.of(0, 1000)));
+        CONSULTAS.put("ApostaRepository.findDtoByDataIntervaloAposCursor",
+                r -> r.apostas().findDtoByDataIntervaloAposCursor(INICIO, INICIO.plusHours(1),
+                        INICIO.plusMinutes(30), 100L, PageRequest.of(0, 1000)));
+        CONSULTAS.put("ApostaRepository.findIdsPendentesPorJogo",
+                r -> r.apostas().findIdsPendentesPorJogo("Jogo 42", 0L, PageRequest.of(0, 1000)));
+        CONSULTAS.put("ApostaRepository.somarPorUsuarioECategoria",
+                r -> r.apostas().somarPorUsuarioECategoria(IDS));
+        CONSULTAS.put("ApostaRepository.liquidar",
+                r -> r.apostas().liquidar(IDS, ResultadoAposta.GANHOU));
+        CONSULTAS.put("ApostaRepository.findDtoByIdIn",
+                r -> r.apostas().findDtoByIdIn(IDS));
+        CONSULTAS.put("ApostaRepository.reservarBlocoIds",
+                r -> r.apostas().reservarBlocoIds());
+        // o SQL do stream só é executado quando o primeiro elemento é lido
+        CONSULTAS.put("ApostaRepository.streamDtoByUsername", r -> {
+            try (Stream<ApostaDTO> apostas = r.apostas().streamDtoByUsername("usuario42")) {
+                apostas.findFirst();
+            }
+        });
+
+        CONSULTAS.put("UsuarioRepository.findByUsername",
+                r -> r.usuarios().findByUsername("usuario42"));
+        CONSULTAS.put("UsuarioRepository.findById",
+                r -> r.usuarios().findById(42L));
+        CONSULTAS.put("UsuarioRepository.findByEmail",
+                r -> r.usuarios().findByEmail("usuario42@betaware.com"));
+        CONSULTAS.put("UsuarioRepository.findByCpf",
+                r -> r.usuarios().findByCpf("00000000042"));
+        CONSULTAS.put("UsuarioRepository.existsByUsername",
+                r -> r.usuarios().existsByUsername("usuario42"));
+        CONSULTAS.put("UsuarioRepository.existsByEmail",
+                r -> r.usuarios().existsByEmail("usuario42@betaware.com"));
+        CONSULTAS.put("UsuarioRepository.existsByCpf",
+                r -> r.usuarios().existsByCpf("00000000042"));
+        CONSULTAS.put("UsuarioRepository.findCamposEmUso",
+                r -> r.usuarios().findCamposEmUso("usuario42", "usuario42@betaware.com", "00000000042"));
+    }
+
+    // consultas que leem a tabela inteira de propósito (carga de índices em memória)
+    private static final Set<String> LEITURAS_COMPLETAS = Set.of(
+            "UsuarioRepository.streamChaves");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApostaRepository apostaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @BeforeAll
+    void popularBase() {
+        jdbcTemplate.update("INSERT INTO usuario (id, username, nome, cpf, cep, endereco, senha, email, perfil) " +
+                "SELECT X, 'usuario' || X, 'Usuário ' || X, LPAD(CAST(X AS VARCHAR), 11, '0'), '01001000', NULL, " +
+                "'senha', 'usuario' || X || '@betaware.com', 'USER' FROM SYSTEM_RANGE(1, " + USUARIOS + ")");
+
+        jdbcTemplate.update("INSERT INTO apostas (id, categoria, jogo, valor_centavos, resultado, data, usuario_id) " +
+                "SELECT X, CASE MOD(X, 3) WHEN 0 THEN 'Futebol' WHEN 1 THEN 'Basquete' ELSE 'Tênis' END, " +
+                "'Jogo ' || MOD(X, 5000), 1000, " +
+                "CASE MOD(X, 4) WHEN 0 THEN 'GANHOU' WHEN 1 THEN 'PERDEU' WHEN 2 THEN 'PENDENTE' ELSE 'CANCELADA' END, " +
+                "DATEADD('MINUTE', X, TIMESTAMP '2024-01-01 00:00:00'), MOD(X, " + USUARIOS + ") + 1 " +
+                "FROM SYSTEM_RANGE(1, " + LINHAS + ")");
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void pararCaptura() {
+        CapturaSql.parar();
+    }
+
+    @Test
+    void todaConsultaDosRepositoriosTemPlanoVerificado() {
+        Stream.of(ApostaRepository.class, UsuarioRepository.class)
+                .flatMap(repositorio -> Arrays.stream(repositorio.getDeclaredMethods()))
+                .filter(metodo -> !metodo.isDefault())
+                .map(PlanoExecucaoRepositoryTest::nome)
+                .filter(nome -> !LEITURAS_COMPLETAS.contains(nome))
+                .forEach(nome -> assertThat(CONSULTAS)
+                        .as("consulta %s sem chamada neste teste", nome)
+                        .containsKey(nome));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultas")
+    void consultaNaoUsaTableScan(String nome, Consumer<Repositorios> chamada) {
+        CapturaSql.iniciar();
+        chamada.accept(new Repositorios(apostaRepository, usuarioRepository));
+        List<Comando> comandos = CapturaSql.parar();
+
+        assertThat(comandos).as("SQL gerado por %s", nome).isNotEmpty();
+        for (Comando comando : comandos) {
+            assertThat(explicar(comando))
+                    .as("plano de %s: %s", nome, comando.sql())
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    Stream<Arguments> consultas() {
+        return CONSULTAS.entrySet().stream()
+                .map(consulta -> Arguments.of(consulta.getKey(), consulta.getValue()));
+    }
+
+    // EXPLAIN do comando capturado, com os mesmos parâmetros que o Hibernate vinculou
+    private String explicar(Comando comando) {
+        return String.join("\n", jdbcTemplate.query("EXPLAIN " + comando.sql(), ps -> {
+            for (Map.Entry<Integer, Object> parametro : comando.parametros().entrySet()) {
+                ps.setObject(parametro.getKey(), parametro.getValue());
+            }
+        }, (rs, linha) -> rs.getString(1)));
+    }
+
+    private static String nome(Method metodo) {
+        return metodo.getDeclaringClass().getSimpleName() + "." + metodo.getName();
+    }
+
+    record Repositorios(ApostaRepository apostas, UsuarioRepository usuarios) {
+    }
+
+    record Comando(String sql, Map<Integer, Object> parametros) {
+    }
+
+    /**
+     * Envolve o {@link DataSource} do teste para registrar, enquanto a captura está ativa, cada
+     * {@link PreparedStatement} executado e os valores vinculados a ele.
+     */
+    @TestConfiguration
+    static class CapturaSql implements BeanPostProcessor {
+
+        private static volatile List<Comando> capturados;
+
+        static void iniciar() {
+            capturados = new ArrayList<>();
+        }
+
+        static List<Comando> parar() {
+            List<Comando> comandos = capturados;
+            capturados = null;
+            return comandos != null ? comandos : List.of();
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return proxy(bean, (alvo, metodo, args) -> {
+                Object resultado = invocar(bean, metodo, args);
+                return resultado instanceof Connection conexao ? conexao(conexao) : resultado;
+            });
+        }
+
+        private static Object conexao(Connection conexao) {
+            return proxy(conexao, (alvo, metodo, args) -> {
+                Object resultado = invocar(conexao, metodo, args);
+                if (resultado instanceof PreparedStatement ps && metodo.getName().equals("prepareStatement")) {
+                    return comando(ps, (String) args[0]);
+                }
+                return resultado;
+            });
+        }
+
+        private static Object comando(PreparedStatement ps, String sql) {
+            Map<Integer, Object> parametros = new TreeMap<>();
+            return proxy(ps, (alvo, metodo, args) -> {
+                String nome = metodo.getName();
+                if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                    parametros.put(indice, nome.equals("setNull") ? null : args[1]);
+                } else if (nome.startsWith("execute") || nome.equals("addBatch")) {
+                    List<Comando> destino = capturados;
+                    if (destino != null) {
+                        destino.add(new Comando(sql, new TreeMap<>(parametros)));
+                    }
+                }
+                return invocar(ps, metodo, args);
+            });
+        }
+
+        private static Object proxy(Object alvo, InvocationHandler handler) {
+            Class<?>[] interfaces = ClassUtils.getAllInterfaces(alvo);
+            return Proxy.newProxyInstance(CapturaSql.class.getClassLoader(), interfaces, handler);
+        }
+
+        private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
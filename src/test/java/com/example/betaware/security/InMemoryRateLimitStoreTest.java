@@ -0,0 +1,128 @@
+package com.example.betaware.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    @Test
+    void bucketEsgotaNaCapacidade() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.tryConsume("chave", 5, 0)).isZero();
+        }
+        // sem recarga não há próxima ficha
+        assertThat(store.tryConsume("chave", 5, 0)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void esperaInformadaCorrespondeATaxaDeRecarga() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10);
+
+        assertThat(store.tryConsume("chave", 1, 1)).isZero();
+        // uma ficha por minuto: a próxima sai em no máximo um minuto
+        assertThat(store.tryConsume("chave", 1, 1))
+                .isPositive()
+                .isLessThanOrEqualTo(TimeUnit.MINUTES.toNanos(1));
+    }
+
+    @Test
+    void bucketRecarregaComOTempo() {
+        AtomicLong relogio = new AtomicLong();
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, relogio::get);
+        // 60.000 por minuto: uma ficha por milissegundo
+        assertThat(store.tryConsume("chave", 1, 60_000)).isZero();
+        assertThat(store.tryConsume("chave", 1, 60_000)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertThat(store.tryConsume("chave", 1, 60_000)).isZero();
+    }
+
+    @Test
+    void recargaNaoPassaDaCapacidade() {
+        AtomicLong relogio = new AtomicLong();
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, relogio::get);
+        assertThat(store.tryConsume("chave", 2, 60_000)).isZero();
+
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+
+        // depois de 20 ms caberiam 20 fichas, mas o bucket guarda no máximo 2
+        int consumidas = 0;
+        while (store.tryConsume("chave", 2, 60_000) == 0) {
+            consumidas++;
+        }
+        assertThat(consumidas).isEqualTo(2);
+    }
+
+    @Test
+    void chavesTemBucketsIndependentes() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10);
+
+        assertThat(store.tryConsume("a", 1, 0)).isZero();
+        assertThat(store.tryConsume("a", 1, 0)).isPositive();
+        assertThat(store.tryConsume("b", 1, 0)).isZero();
+    }
+
+    @Test
+    void consumoConcorrenteNuncaPassaDaCapacidade() throws Exception {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10);
+        int threads = 16;
+        int tentativasPorThread = 500;
+        long capacidade = 1_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> resultados = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    int consumidas = 0;
+                    for (int i = 0; i < tentativasPorThread; i++) {
+                        if (store.tryConsume("disputada", capacidade, 0) == 0) {
+                            consumidas++;
+                        }
+                    }
+                    return consumidas;
+                }));
+            }
+            largada.countDown();
+
+            int total = 0;
+            for (Future<Integer> resultado : resultados) {
+                total += resultado.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(capacidade);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void bucketInativoERemovidoEVoltaCheio() {
+        AtomicLong relogio = new AtomicLong();
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1, relogio::get);
+        assertThat(store.tryConsume("chave", 1, 0)).isZero();
+        assertThat(store.tryConsume("chave", 1, 0)).isPositive();
+
+        relogio.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        store.removerInativos();
+        assertThat(store.tryConsume("chave", 1, 0)).isPositive();
+
+        relogio.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        store.removerInativos();
+        assertThat(store.tryConsume("chave", 1, 0)).isZero();
+    }
+}
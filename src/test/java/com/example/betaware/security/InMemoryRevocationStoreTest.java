@@ -0,0 +1,134 @@
+package com.example.betaware.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRevocationStoreTest {
+
+    private static final long MINUTO = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    void revogarDevolveFalseParaIdJaRevogado() {
+        InMemoryRevocationStore store = TokensDeTeste.revocationStore();
+        long expiraEm = System.currentTimeMillis() + MINUTO;
+
+        assertThat(store.revogar("jti-1", expiraEm)).isTrue();
+        assertThat(store.revogar("jti-1", expiraEm)).isFalse();
+        assertThat(store.revogado("jti-1")).isTrue();
+        assertThat(store.revogado("jti-2")).isFalse();
+        assertThat(store.revogado(null)).isFalse();
+    }
+
+    @Test
+    void revogacaoJaExpiradaNaoOcupaMemoria() {
+        InMemoryRevocationStore store = TokensDeTeste.revocationStore();
+
+        assertThat(store.revogar("jti-1", System.currentTimeMillis() - 1)).isTrue();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void limpezaDescartaSoOsBaldesVencidos() {
+        InMemoryRevocationStore store = TokensDeTeste.revocationStore();
+        long agora = System.currentTimeMillis();
+        store.revogar("vigente", agora + 10 * MINUTO);
+        incluirNoBalde(store, "vencido", agora - 2 * MINUTO);
+
+        assertThat(store.revogado("vencido")).isTrue();
+        store.removerExpirados();
+
+        assertThat(store.revogado("vencido")).isFalse();
+        assertThat(store.revogado("vigente")).isTrue();
+        assertThat(baldes(store)).hasSize(1);
+    }
+
+    @Test
+    void revogacoesSobrevivemAoReinicioComArquivo(@TempDir Path pasta) throws IOException {
+        Path arquivo = pasta.resolve("revogacoes.log");
+        InMemoryRevocationStore store = TokensDeTeste.revocationStore(arquivo.toString());
+        store.revogar("sessao-1", System.currentTimeMillis() + 10 * MINUTO);
+        store.encerrar();
+
+        InMemoryRevocationStore reiniciado = TokensDeTeste.revocationStore(arquivo.toString());
+
+        assertThat(reiniciado.revogado("sessao-1")).isTrue();
+        assertThat(Files.readAllLines(arquivo)).hasSize(1);
+        reiniciado.encerrar();
+    }
+
+    @Test
+    void compactacaoRemoveDoArquivoAsEntradasExpiradas(@TempDir Path pasta) throws IOException {
+        Path arquivo = pasta.resolve("revogacoes.log");
+        long agora = System.currentTimeMillis();
+        Files.write(arquivo, List.of((agora - MINUTO) + " antiga", (agora + 10 * MINUTO) + " atual"));
+
+        InMemoryRevocationStore store = TokensDeTeste.revocationStore(arquivo.toString());
+
+        assertThat(store.revogado("antiga")).isFalse();
+        assertThat(store.revogado("atual")).isTrue();
+        assertThat(Files.readAllLines(arquivo)).containsExactly((agora + 10 * MINUTO) + " atual");
+        store.encerrar();
+    }
+
+    @Test
+    void revogacoesConcorrentesSaoTodasGravadasNoEncerramento(@TempDir Path pasta) throws Exception {
+        Path arquivo = pasta.resolve("revogacoes.log");
+        InMemoryRevocationStore store = TokensDeTeste.revocationStore(arquivo.toString());
+        long expiraEm = System.currentTimeMillis() + 10 * MINUTO;
+        int threads = 8;
+        int porThread = 500;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        store.revogar("t" + thread + "-" + i, expiraEm);
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // o encerramento espera a thread do arquivo esvaziar a fila
+        store.encerrar();
+
+        assertThat(Files.readAllLines(arquivo)).hasSize(threads * porThread).doesNotHaveDuplicates();
+        InMemoryRevocationStore reiniciado = TokensDeTeste.revocationStore(arquivo.toString());
+        assertThat(reiniciado.size()).isEqualTo(threads * porThread);
+        reiniciado.encerrar();
+    }
+
+    // uma revogação cujo minuto de expiração já passou, como se o token tivesse expirado desde então
+    @SuppressWarnings("unchecked")
+    private static void incluirNoBalde(InMemoryRevocationStore store, String id, long expiraEm) {
+        ((ConcurrentHashMap<String, Long>) ReflectionTestUtils.getField(store, "revogados")).put(id, expiraEm);
+        baldes(store).computeIfAbsent(expiraEm / MINUTO, b -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentSkipListMap<Long, Set<String>> baldes(InMemoryRevocationStore store) {
+        return (ConcurrentSkipListMap<Long, Set<String>>) ReflectionTestUtils.getField(store, "baldes");
+    }
+}
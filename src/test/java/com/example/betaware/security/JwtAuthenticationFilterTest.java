@@ -0,0 +1,115 @@
+package com.example.betaware.security;
+
+import com.example.betaware.model.Usuario;
+import com.example.betaware.model.enums.Perfil;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtTokenProvider tokenProvider;
+    private JwtTokenCache tokenCache;
+    private InMemoryRevocationStore revocationStore;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = TokensDeTeste.tokenProvider();
+        tokenCache = TokensDeTeste.tokenCache(100);
+        revocationStore = TokensDeTeste.revocationStore();
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(anyString()))
+                .thenAnswer(i -> usuario(i.getArgument(0)));
+
+        filtro = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filtro, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filtro, "tokenCache", tokenCache);
+        ReflectionTestUtils.setField(filtro, "revocationStore", revocationStore);
+        ReflectionTestUtils.setField(filtro, "userDetailsService", userDetailsService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenEmCacheNaoConsultaOBanco() throws Exception {
+        String token = tokenProvider.generateToken("usuario1", tokenProvider.novaSessao());
+
+        assertThat(autenticar(token)).isNotNull();
+        assertThat(autenticar(token)).isNotNull();
+
+        assertThat(tokenCache.size()).isEqualTo(1);
+        verify(userDetailsService, times(1)).loadUserByUsername("usuario1");
+    }
+
+    @Test
+    void jtiRevogadoERecusadoMesmoComTokenEmCache() throws Exception {
+        String token = tokenProvider.generateToken("usuario1", tokenProvider.novaSessao());
+        assertThat(autenticar(token)).isNotNull();
+
+        Claims claims = tokenProvider.parse(token).claims();
+        revocationStore.revogar(claims.getId(), claims.getExpiration().getTime());
+
+        assertThat(tokenCache.get(token)).isNotNull();
+        assertThat(autenticar(token)).isNull();
+    }
+
+    @Test
+    void sessaoRevogadaERecusadaMesmoComTokenEmCache() throws Exception {
+        String sessao = tokenProvider.novaSessao();
+        String token = tokenProvider.generateToken("usuario1", sessao);
+        assertThat(autenticar(token)).isNotNull();
+
+        revocationStore.revogar(sessao, System.currentTimeMillis() + TokensDeTeste.REFRESH_EXPIRACAO_MS);
+
+        assertThat(tokenCache.get(token)).isNotNull();
+        assertThat(autenticar(token)).isNull();
+    }
+
+    @Test
+    void refreshTokenNaoAutenticaRequisicoes() throws Exception {
+        String refresh = tokenProvider.generateRefreshToken("usuario1", tokenProvider.novaSessao());
+
+        assertThat(autenticar(refresh)).isNull();
+        assertThat(tokenCache.size()).isZero();
+    }
+
+    private static Usuario usuario(String username) {
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setUsername(username);
+        usuario.setSenha("");
+        usuario.setPerfil(Perfil.USER);
+        return usuario;
+    }
+
+    private Authentication autenticar(String token) throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.betaware.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    @TempDir
+    Path temporario;
+
+    @Test
+    void chavesEDiretorioSoTemPermissaoParaODono() throws IOException {
+        Path diretorio = temporario.resolve("chaves");
+        JwtKeyRing keyRing = TokensDeTeste.keyRing(diretorio.toString());
+        String kid = keyRing.chaveAssinatura().kid();
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(diretorio))).isEqualTo("rwx------");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(diretorio.resolve(kid + ".privada"))))
+                .isEqualTo("rw-------");
+        try (var arquivos = Files.list(diretorio)) {
+            assertThat(arquivos.map(arquivo -> arquivo.getFileName().toString()))
+                    .containsExactlyInAnyOrder(kid + ".privada", kid + ".publica");
+        }
+    }
+
+    @Test
+    void criacaoDaChaveVemDoArquivoENaoDaDataDeModificacao() throws IOException {
+        Path diretorio = temporario.resolve("chaves");
+        String kid = TokensDeTeste.keyRing(diretorio.toString()).chaveAssinatura().kid();
+        // uma cópia ou restauração de backup com data antiga não dispara uma rotação
+        Files.setLastModifiedTime(diretorio.resolve(kid + ".privada"),
+                FileTime.from(Instant.now().minus(Duration.ofDays(30))));
+
+        JwtKeyRing outraInstancia = TokensDeTeste.keyRing(diretorio.toString());
+
+        assertThat(outraInstancia.chaveAssinatura().kid()).isEqualTo(kid);
+        assertThat(outraInstancia.anel().verificacao()).containsOnlyKeys(kid);
+    }
+
+    @Test
+    void tokenDaChaveAnteriorValeDuranteATransicaoEERecusadoDepoisDaAposentadoria() throws IOException {
+        Path diretorio = temporario.resolve("chaves");
+        JwtKeyRing keyRing = TokensDeTeste.keyRing(diretorio.toString());
+        JwtKeyRing.Chave anterior = keyRing.chaveAssinatura();
+        String token = Jwts.builder().header().keyId(anterior.kid()).and()
+                .subject("usuario1").signWith(anterior.privada()).compact();
+
+        // passou a rotação (7 dias): surge uma chave nova, que só assina depois de publicada por um max-age
+        recuar(diretorio, anterior, Duration.ofDays(8));
+        keyRing.atualizar();
+
+        assertThat(keyRing.anel().verificacao()).hasSize(2).containsKey(anterior.kid());
+        assertThat(keyRing.chaveAssinatura().kid()).isEqualTo(anterior.kid());
+        assertThat(verificar(keyRing, token)).isEqualTo("usuario1");
+
+        // passou rotação + max-age + TTL do refresh: nenhum token dela pode estar válido
+        recuar(diretorio, anterior, Duration.ofDays(22));
+        keyRing.atualizar();
+
+        assertThat(keyRing.anel().verificacao()).hasSize(1).doesNotContainKey(anterior.kid());
+        assertThat(keyRing.chaveAssinatura().kid()).isNotEqualTo(anterior.kid());
+        assertThat(diretorio.resolve(anterior.kid() + ".privada")).doesNotExist();
+        assertThatThrownBy(() -> verificar(keyRing, token))
+                .isInstanceOf(SignatureException.class)
+                .hasMessageContaining(anterior.kid());
+    }
+
+    @Test
+    void semDiretorioNaoSobeQuandoEleEObrigatorio() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "diretorio", "");
+        ReflectionTestUtils.setField(keyRing, "diretorioObrigatorio", true);
+
+        assertThatThrownBy(keyRing::init)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.jwt.chaves.diretorio");
+    }
+
+    // reescreve o instante de criação gravado no arquivo da chave
+    private static void recuar(Path diretorio, JwtKeyRing.Chave chave, Duration idade) throws IOException {
+        Path privada = diretorio.resolve(chave.kid() + ".privada");
+        List<String> linhas = Files.readAllLines(privada);
+        Files.write(privada, List.of("criada-em=" + Instant.now().minus(idade), linhas.get(1)));
+    }
+
+    private static String verificar(JwtKeyRing keyRing, String token) {
+        return Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.betaware.security;
+
+import com.example.betaware.event.UsuarioAlteradoEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.CharBuffer;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenCacheTest {
+
+    private final JwtTokenCache cache = TokensDeTeste.tokenCache(100);
+
+    @Test
+    void tokenEmCacheEEncontradoPorQualquerCharSequence() {
+        guardar(cache, "token-a", "usuario1", 1L, 60_000);
+
+        String cabecalho = "Bearer token-a";
+        assertThat(cache.get(CharBuffer.wrap(cabecalho, 7, cabecalho.length()))).isNotNull();
+        assertThat(cache.get("token-b")).isNull();
+    }
+
+    @Test
+    void tokenLongoENaoAsciiTemHashProprio() {
+        String longo = "x".repeat(5000);
+        guardar(cache, longo, "usuario1", 1L, 60_000);
+        // (byte) '\u0141' == 'A': truncar os chars faria os dois tokens colidirem
+        guardar(cache, "token-\u0141", "usuario2", 2L, 60_000);
+
+        assertThat(cache.get(CharBuffer.wrap("Bearer " + longo, 7, longo.length() + 7))).isNotNull();
+        assertThat(cache.get(longo + "x")).isNull();
+        assertThat(cache.get("token-\u0141").userId()).isEqualTo(2L);
+        assertThat(cache.get("token-A")).isNull();
+    }
+
+    @Test
+    void snapshotNaoGuardaASenha() {
+        JwtTokenCache.CachedToken cached = guardar(cache, "token-a", "usuario1", 1L, 60_000);
+
+        assertThat(cached.principal().getPassword()).isEmpty();
+        assertThat(cached.principal().getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void tokenExpiradoSaiDoCache() throws InterruptedException {
+        guardar(cache, "token-a", "usuario1", 1L, 20);
+
+        Thread.sleep(40);
+
+        assertThat(cache.get("token-a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void invalidateUserRemoveTodosOsTokensDoUsuario() {
+        guardar(cache, "token-a", "usuario1", 1L, 60_000);
+        guardar(cache, "token-b", "usuario1", 1L, 60_000);
+        guardar(cache, "token-c", "usuario2", 2L, 60_000);
+
+        cache.invalidateUser(1L);
+
+        assertThat(cache.get("token-a")).isNull();
+        assertThat(cache.get("token-b")).isNull();
+        assertThat(cache.get("token-c")).isNotNull();
+    }
+
+    @Test
+    void alteracaoOuRemocaoDoUsuarioInvalidaOsTokens() {
+        guardar(cache, "token-a", "usuario1", 1L, 60_000);
+        guardar(cache, "token-b", "usuario2", 2L, 60_000);
+
+        cache.onUsuarioAlterado(evento(1L, "usuario1", UsuarioAlteradoEvent.Tipo.ATUALIZADO));
+        cache.onUsuarioAlterado(evento(2L, "usuario2", UsuarioAlteradoEvent.Tipo.REMOVIDO));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void usuarioRenomeadoPerdeOsTokensDoUsernameAntigo() {
+        guardar(cache, "token-a", "antigo", 1L, 60_000);
+
+        cache.onUsuarioAlterado(evento(1L, "novo", UsuarioAlteradoEvent.Tipo.ATUALIZADO));
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void cadastroDeUsuarioNaoInvalidaNada() {
+        guardar(cache, "token-a", "usuario1", 1L, 60_000);
+
+        cache.onUsuarioAlterado(evento(1L, "usuario1", UsuarioAlteradoEvent.Tipo.CRIADO));
+
+        assertThat(cache.get("token-a")).isNotNull();
+    }
+
+    @Test
+    void cargaIniciadaAntesDaInvalidacaoNaoVoltaParaOCache() {
+        // o filtro leu a versão e foi ao banco; o usuário mudou antes do put
+        long versao = cache.version();
+        cache.invalidateUser(1L);
+
+        JwtTokenCache.CachedToken cached = cache.put("token-a", claims("usuario1", 60_000), usuario("usuario1"), 1L, versao);
+
+        assertThat(cached).isNotNull();
+        assertThat(cache.get("token-a")).isNull();
+
+        guardar(cache, "token-a", "usuario1", 1L, 60_000);
+        assertThat(cache.get("token-a")).isNotNull();
+    }
+
+    @Test
+    void cargaQueLeuOUsuarioAntesDoCommitEDescartadaAposOCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.onUsuarioAlterado(evento(1L, "usuario1", UsuarioAlteradoEvent.Tipo.ATUALIZADO));
+            // ainda sem commit, uma requisição lê a linha antiga e guarda o token
+            guardar(cache, "token-a", "usuario1", 1L, 60_000);
+            assertThat(cache.get("token-a")).isNotNull();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void usuarioSemIdNaoEGuardado() {
+        JwtTokenCache.CachedToken cached = cache.put("token-a", claims("usuario1", 60_000), usuario("usuario1"),
+                null, cache.version());
+
+        assertThat(cached.principal().getUsername()).isEqualTo("usuario1");
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void cacheCheioDescartaEntradasSemPassarDoLimite() {
+        JwtTokenCache pequeno = TokensDeTeste.tokenCache(10);
+
+        for (int i = 0; i < 50; i++) {
+            guardar(pequeno, "token-" + i, "usuario" + i, (long) i, 60_000);
+        }
+
+        assertThat(pequeno.size()).isLessThanOrEqualTo(10);
+        assertThat(pequeno.get("token-49")).isNotNull();
+    }
+
+    private static JwtTokenCache.CachedToken guardar(JwtTokenCache cache, String token, String username, Long id,
+                                                     long validadeMs) {
+        return cache.put(token, claims(username, validadeMs), usuario(username), id, cache.version());
+    }
+
+    private static Claims claims(String username, long validadeMs) {
+        return Jwts.claims()
+                .subject(username)
+                .expiration(new Date(System.currentTimeMillis() + validadeMs))
+                .build();
+    }
+
+    private static UserDetails usuario(String username) {
+        return User.withUsername(username).password("senha").roles("USER").build();
+    }
+
+    private static UsuarioAlteradoEvent evento(Long id, String username, UsuarioAlteradoEvent.Tipo tipo) {
+        return new UsuarioAlteradoEvent(id, username, username + "@betaware.com", "00000000001", tipo);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.betaware.security;
+
+import com.example.betaware.exception.LimiteRequisicoesExcedidoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitInterceptorTest {
+
+    private RateLimitInterceptor interceptor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RateLimitInterceptor();
+        ReflectionTestUtils.setField(interceptor, "rateLimitStore", new InMemoryRateLimitStore(10));
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", meterRegistry);
+    }
+
+    @Test
+    void acimaDaCapacidadeResponde429ComRetryAfter() throws Exception {
+        HandlerMethod handler = handler("limitado");
+
+        assertThat(interceptor.preHandle(requisicao("10.0.0.1"), new MockHttpServletResponse(), handler)).isTrue();
+        assertThat(interceptor.preHandle(requisicao("10.0.0.1"), new MockHttpServletResponse(), handler)).isTrue();
+
+        assertThatThrownBy(() -> interceptor.preHandle(requisicao("10.0.0.1"), new MockHttpServletResponse(), handler))
+                .isInstanceOf(LimiteRequisicoesExcedidoException.class)
+                .satisfies(e -> assertThat(((LimiteRequisicoesExcedidoException) e).getRetryAfterSegundos())
+                        .isBetween(1L, 60L));
+        assertThat(meterRegistry.counter("betaware.ratelimit.rejeitadas", "endpoint", "Endpoints.limitado").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void cadaClienteTemSeuBucket() throws Exception {
+        HandlerMethod handler = handler("limitado");
+        interceptor.preHandle(requisicao("10.0.0.1"), new MockHttpServletResponse(), handler);
+        interceptor.preHandle(requisicao("10.0.0.1"), new MockHttpServletResponse(), handler);
+
+        assertThat(interceptor.preHandle(requisicao("10.0.0.2"), new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    @Test
+    void handlerSemAnotacaoNaoELimitado() throws Exception {
+        HandlerMethod handler = handler("livre");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(interceptor.preHandle(requisicao("10.0.0.1"), new MockHttpServletResponse(), handler)).isTrue();
+        }
+    }
+
+    private static MockHttpServletRequest requisicao(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private static HandlerMethod handler(String metodo) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(metodo));
+    }
+
+    static class Endpoints {
+
+        @RateLimit(capacity = 2, refillPerMinute = 1)
+        public void limitado() {
+        }
+
+        public void livre() {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.betaware.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Anel de chaves, provider, cache e revogações montados fora do contexto Spring; o provider usa um anel só em memória.
+ */
+public final class TokensDeTeste {
+
+    public static final long EXPIRACAO_MS = 900_000L;
+    public static final long REFRESH_EXPIRACAO_MS = 1_209_600_000L;
+
+    private TokensDeTeste() {
+    }
+
+    public static JwtTokenProvider tokenProvider() {
+        JwtKeyRing keyRing = keyRing("");
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", EXPIRACAO_MS);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpirationInMs", REFRESH_EXPIRACAO_MS);
+        ReflectionTestUtils.setField(tokenProvider, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenProvider, "keyRing", keyRing);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+
+    // rotação semanal; sem diretório, só em memória
+    public static JwtKeyRing keyRing(String diretorio) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algoritmo", "ES256");
+        ReflectionTestUtils.setField(keyRing, "diretorio", diretorio);
+        ReflectionTestUtils.setField(keyRing, "rotacao", Duration.ofDays(7));
+        ReflectionTestUtils.setField(keyRing, "maxAgeJwks", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(keyRing, "jwtExpirationInMs", EXPIRACAO_MS);
+        ReflectionTestUtils.setField(keyRing, "refreshExpirationInMs", REFRESH_EXPIRACAO_MS);
+        ReflectionTestUtils.setField(keyRing, "segredoLegado", "");
+        ReflectionTestUtils.setField(keyRing, "legadoAte", "");
+        keyRing.init();
+        return keyRing;
+    }
+
+    public static JwtTokenCache tokenCache(int maxSize) {
+        JwtTokenCache tokenCache = new JwtTokenCache();
+        ReflectionTestUtils.setField(tokenCache, "maxSize", maxSize);
+        tokenCache.init();
+        return tokenCache;
+    }
+
+    // sem arquivo: só em memória
+    public static InMemoryRevocationStore revocationStore() {
+        return revocationStore("");
+    }
+
+    public static InMemoryRevocationStore revocationStore(String arquivo) {
+        InMemoryRevocationStore store = new InMemoryRevocationStore();
+        ReflectionTestUtils.setField(store, "arquivo", arquivo);
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        try {
+            store.init();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return store;
+    }
+}
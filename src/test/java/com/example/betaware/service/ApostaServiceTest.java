@@ -0,0 +1,58 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.exception.NegocioException;
+import com.example.betaware.repository.ApostaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ApostaServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private ApostaService apostaService;
+    private ApostaRepository apostaRepository;
+
+    @BeforeEach
+    void setUp() {
+        apostaRepository = mock(ApostaRepository.class);
+        ValidadorPeriodo validadorPeriodo = new ValidadorPeriodo();
+        ReflectionTestUtils.setField(validadorPeriodo, "intervaloMaximo", Duration.ofDays(31));
+
+        apostaService = new ApostaService();
+        ReflectionTestUtils.setField(apostaService, "apostaRepository", apostaRepository);
+        ReflectionTestUtils.setField(apostaService, "ingestaoApostas", mock(IngestaoApostas.class));
+        ReflectionTestUtils.setField(apostaService, "validadorPeriodo", validadorPeriodo);
+    }
+
+    @Test
+    void periodoDoUsuarioAcimaDoMaximoERecusadoSemConsultar() {
+        assertThatThrownBy(() -> apostaService.listarApostasPorUsuarioEPeriodo("usuario1", INICIO, INICIO.plusDays(32)))
+                .isInstanceOf(NegocioException.class)
+                .hasMessageContaining("31 dia(s)");
+        assertThatThrownBy(() -> apostaService.listarApostasPorUsuarioEPeriodo("usuario1", INICIO, INICIO.minusDays(1)))
+                .isInstanceOf(NegocioException.class);
+        verifyNoInteractions(apostaRepository);
+    }
+
+    @Test
+    void periodoDoUsuarioDentroDoMaximoEConsultado() {
+        ApostaDTO aposta = ApostaDTO.builder().id(1L).username("usuario1").data(INICIO.plusDays(1)).build();
+        when(apostaRepository.findDtoByUsernameAndDataBetween("usuario1", INICIO, INICIO.plusDays(31)))
+                .thenReturn(List.of(aposta));
+
+        assertThat(apostaService.listarApostasPorUsuarioEPeriodo("usuario1", INICIO, INICIO.plusDays(31)))
+                .containsExactly(aposta);
+    }
+}
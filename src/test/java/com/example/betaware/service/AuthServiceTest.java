@@ -0,0 +1,109 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.JwtResponse;
+import com.example.betaware.model.Usuario;
+import com.example.betaware.model.enums.Perfil;
+import com.example.betaware.repository.UsuarioRepository;
+import com.example.betaware.security.InMemoryRevocationStore;
+import com.example.betaware.security.JwtTokenProvider;
+import com.example.betaware.security.TokensDeTeste;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private JwtTokenProvider tokenProvider;
+    private InMemoryRevocationStore revocationStore;
+    private AuthService authService;
+    private String sessao;
+    private String refreshToken;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = TokensDeTeste.tokenProvider();
+        revocationStore = TokensDeTeste.revocationStore();
+
+        Usuario usuario = new Usuario();
+        usuario.setUsername("usuario1");
+        usuario.setNome("Usuário 1");
+        usuario.setPerfil(Perfil.USER);
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.findByUsername("usuario1")).thenReturn(Optional.of(usuario));
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(authService, "revocationStore", revocationStore);
+        ReflectionTestUtils.setField(authService, "usuarioRepository", usuarioRepository);
+
+        sessao = tokenProvider.novaSessao();
+        refreshToken = tokenProvider.generateRefreshToken("usuario1", sessao);
+    }
+
+    @Test
+    void renovarEmiteNovoParNaMesmaSessao() {
+        JwtResponse resposta = authService.renovar(refreshToken);
+
+        assertThat(resposta.getRefreshToken()).isNotEqualTo(refreshToken);
+        assertThat(resposta.getExpiraEmSegundos()).isEqualTo(TokensDeTeste.EXPIRACAO_MS / 1000);
+        Claims access = tokenProvider.parse(resposta.getToken()).claims();
+        Claims refresh = tokenProvider.parse(resposta.getRefreshToken()).claims();
+        assertThat(JwtTokenProvider.isRefreshToken(access)).isFalse();
+        assertThat(JwtTokenProvider.isRefreshToken(refresh)).isTrue();
+        assertThat(access.get(JwtTokenProvider.CLAIM_SESSAO, String.class)).isEqualTo(sessao);
+        assertThat(refresh.get(JwtTokenProvider.CLAIM_SESSAO, String.class)).isEqualTo(sessao);
+    }
+
+    @Test
+    void refreshTokenSoPodeSerTrocadoUmaVez() {
+        JwtResponse renovado = authService.renovar(refreshToken);
+        JwtResponse deNovo = authService.renovar(renovado.getRefreshToken());
+
+        assertThat(deNovo.getRefreshToken()).isNotEqualTo(renovado.getRefreshToken());
+        assertThat(revocationStore.revogado(sessao)).isFalse();
+    }
+
+    @Test
+    void reutilizarRefreshTokenRevogaASessaoInteira() {
+        JwtResponse renovado = authService.renovar(refreshToken);
+
+        assertThatThrownBy(() -> authService.renovar(refreshToken))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("Refresh token já utilizado");
+
+        assertThat(revocationStore.revogado(sessao)).isTrue();
+        // o par emitido a partir do token reutilizado também deixa de valer
+        assertThatThrownBy(() -> authService.renovar(renovado.getRefreshToken()))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("Sessão revogada");
+    }
+
+    @Test
+    void logoutRevogaASessao() {
+        authService.logout(refreshToken);
+
+        assertThat(revocationStore.revogado(sessao)).isTrue();
+        assertThatThrownBy(() -> authService.renovar(refreshToken))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void accessTokenNaoServeComoRefreshToken() {
+        String accessToken = tokenProvider.generateToken("usuario1", sessao);
+
+        assertThatThrownBy(() -> authService.renovar(accessToken))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("Refresh token inválido");
+        assertThatThrownBy(() -> authService.logout(accessToken))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.dto.EstatisticaCategoriaDTO;
+import com.example.betaware.dto.EstatisticasApostasDTO;
+import com.example.betaware.dto.RelatorioReconstrucaoDTO;
+import com.example.betaware.model.Usuario;
+import com.example.betaware.model.enums.Perfil;
+import com.example.betaware.model.enums.ResultadoAposta;
+import com.example.betaware.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+/**
+ * Reconstrução das estatísticas concorrente com a gravação de apostas, contra o H2 em memória.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:estatisticas;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+class EstatisticaApostaServiceTest {
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+    private static final LocalDateTime DATA = LocalDateTime.of(2026, 3, 1, 20, 0);
+
+    @Autowired
+    private EstatisticaApostaService estatisticaService;
+
+    @Autowired
+    private ApostaService apostaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconstrucaoDuranteAGravacaoNaoPerdeNemDuplicaDeltas() throws Exception {
+        String username = novoUsuario();
+        apostar(username, "Futebol", 1_000L);
+        apostar(username, "Basquete", 1_000L);
+
+        int escritores = 4;
+        int apostasPorEscritor = 50;
+        CountDownLatch largada = new CountDownLatch(1);
+        List<CompletableFuture<Void>> gravacoes = new ArrayList<>();
+        for (int e = 0; e < escritores; e++) {
+            String categoria = e % 2 == 0 ? "Futebol" : "Basquete";
+            gravacoes.add(CompletableFuture.runAsync(() -> {
+                aguardar(largada);
+                for (int i = 0; i < apostasPorEscritor; i++) {
+                    apostar(username, categoria, 100L);
+                }
+            }));
+        }
+        CompletableFuture<List<RelatorioReconstrucaoDTO>> reconstrucoes = CompletableFuture.supplyAsync(() -> {
+            aguardar(largada);
+            List<RelatorioReconstrucaoDTO> relatorios = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                // estraga o agregado para que cada reconstrução apague e regrave as linhas
+                jdbcTemplate.update("UPDATE estatisticas_apostas SET quantidade = quantidade + 1000 WHERE usuario_id = ?",
+                        usuarioId(username));
+                relatorios.add(estatisticaService.reconstruir(true));
+            }
+            return relatorios;
+        });
+
+        largada.countDown();
+        CompletableFuture.allOf(gravacoes.toArray(CompletableFuture[]::new)).get();
+
+        assertThat(reconstrucoes.get()).allMatch(RelatorioReconstrucaoDTO::isCorrigido);
+        long porCategoria = 1 + (long) escritores / 2 * apostasPorEscritor;
+        EstatisticasApostasDTO estatisticas = estatisticaService.consultar(username);
+        assertThat(estatisticas.getQuantidade()).isEqualTo(2 * porCategoria);
+        assertThat(estatisticas.getQuantidadePendente()).isEqualTo(2 * porCategoria);
+        assertThat(estatisticas.getTotalApostado()).isEqualTo(2 * (1_000L + (porCategoria - 1) * 100L));
+        assertThat(estatisticas.getCategorias())
+                .extracting(EstatisticaCategoriaDTO::getCategoria, EstatisticaCategoriaDTO::getQuantidade)
+                .containsExactlyInAnyOrder(tuple("Futebol", porCategoria), tuple("Basquete", porCategoria));
+        assertThat(estatisticaService.reconstruir(false).getDivergencias()).isZero();
+    }
+
+    private static void aguardar(CountDownLatch largada) {
+        try {
+            largada.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String novoUsuario() {
+        int n = SEQUENCIA.incrementAndGet();
+        Usuario usuario = new Usuario();
+        usuario.setUsername("estatisticas" + n);
+        usuario.setNome("Estatísticas " + n);
+        usuario.setCpf(String.format("%011d", 70_000_000_000L + n));
+        usuario.setCep("01001000");
+        usuario.setSenha("senha");
+        usuario.setEmail("estatisticas" + n + "@betaware.com");
+        usuario.setPerfil(Perfil.USER);
+        return usuarioRepository.save(usuario).getUsername();
+    }
+
+    private Long usuarioId(String username) {
+        return usuarioRepository.findByUsername(username).orElseThrow().getId();
+    }
+
+    private void apostar(String username, String categoria, long valor) {
+        apostaService.criarAposta(ApostaDTO.builder()
+                .categoria(categoria)
+                .jogo("Jogo estatísticas")
+                .valor(valor)
+                .resultado(ResultadoAposta.PENDENTE)
+                .data(DATA)
+                .build(), username);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.betaware.service;
+
+import com.example.betaware.exception.NegocioException;
+import com.example.betaware.exception.ServicoSobrecarregadoException;
+import com.example.betaware.repository.ApostaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ExportacaoApostasServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private ExportacaoApostasService service;
+    private ApostaRepository apostaRepository;
+
+    @BeforeEach
+    void setUp() {
+        // uma thread e fila de um: cabe uma exportação por vez
+        service = new ExportacaoApostasService(new SimpleMeterRegistry(), 1, 1, Duration.ofHours(1), 1000, 5);
+        apostaRepository = mock(ApostaRepository.class);
+        ReflectionTestUtils.setField(service, "apostaRepository", apostaRepository);
+        ReflectionTestUtils.setField(service, "intervaloMaximo", Duration.ofDays(366));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    void reservaLiberadaDuasVezesDevolveSoUmaVaga() {
+        ExportacaoApostasService.Reserva reserva = service.reservar();
+        reserva.liberar();
+        reserva.liberar();
+
+        service.reservar();
+        assertThatThrownBy(service::reservar).isInstanceOf(ServicoSobrecarregadoException.class);
+    }
+
+    @Test
+    void reservaLiberadaAntesDeATarefaRodarNaoLeNada() {
+        ExportacaoApostasService.Reserva reserva = service.reservar();
+        // ex.: a requisição assíncrona expirou antes de o executor do MVC rodar o corpo
+        reserva.liberar();
+
+        assertThatThrownBy(() -> service.exportar(reserva, INICIO, INICIO.plusDays(1),
+                ExportacaoApostasService.Formato.CSV, false, new ByteArrayOutputStream()))
+                .isInstanceOf(IOException.class);
+        verifyNoInteractions(apostaRepository);
+        assertThatCode(service::reservar).doesNotThrowAnyException();
+    }
+
+    @Test
+    void periodoAcimaDoMaximoERecusado() {
+        assertThatCode(() -> service.validarPeriodo(INICIO, INICIO.plusDays(366))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> service.validarPeriodo(INICIO, INICIO.plusDays(367)))
+                .isInstanceOf(NegocioException.class)
+                .hasMessageContaining("366 dia(s)");
+        assertThatThrownBy(() -> service.validarPeriodo(INICIO, INICIO))
+                .isInstanceOf(NegocioException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.betaware.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomTest {
+
+    @Test
+    void nuncaDaFalsoNegativo() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+
+        IntStream.range(0, 10_000).forEach(i -> filtro.adicionar("usuario" + i));
+
+        assertThat(IntStream.range(0, 10_000).filter(i -> !filtro.talvezContenha("usuario" + i)).count()).isZero();
+    }
+
+    @Test
+    void taxaDeFalsoPositivoFicaPertoDaConfiguradaDentroDaCapacidade() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filtro.adicionar("usuario" + i));
+
+        long falsosPositivos = IntStream.range(0, 100_000)
+                .filter(i -> filtro.talvezContenha("outro" + i))
+                .count();
+
+        assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void filtroVazioNaoContemNada() {
+        FiltroBloom filtro = new FiltroBloom(1_000, 0.01);
+
+        assertThat(filtro.talvezContenha("usuario1")).isFalse();
+        assertThat(filtro.talvezContenha("")).isFalse();
+    }
+
+    @Test
+    void adicoesConcorrentesNaoPerdemBits() throws Exception {
+        FiltroBloom filtro = new FiltroBloom(80_000, 0.01);
+        int threads = 8;
+        int porThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < porThread; i++) {
+                        filtro.adicionar("t" + thread + ":" + i);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < porThread; i++) {
+                assertThat(filtro.talvezContenha("t" + t + ":" + i)).isTrue();
+            }
+        }
+    }
+}
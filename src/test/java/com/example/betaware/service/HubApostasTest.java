@@ -0,0 +1,146 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class HubApostasTest {
+
+    private HubApostas hub;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new HubApostas();
+        ReflectionTestUtils.setField(hub, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hub, "filaMaxima", 4);
+        ReflectionTestUtils.setField(hub, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(hub, "conexoesPorUsuario", 5);
+        ReflectionTestUtils.setField(hub, "conexoesMaximas", 100);
+        ReflectionTestUtils.setField(hub, "retryAfterSegundos", 5L);
+        ReflectionTestUtils.setField(hub, "threads", 2);
+        ReflectionTestUtils.setField(hub, "envioMaximo", Duration.ofMillis(50));
+        hub.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.encerrar();
+    }
+
+    @Test
+    void filaCheiaDesconectaOAssinanteSemEsperarOEnvioParado() throws InterruptedException {
+        EmitterParado parado = new EmitterParado();
+        hub.assinar("usuario1", parado);
+        parado.aguardarEnvio();
+
+        // o heartbeat inicial está preso no envio; cabem 4 eventos na fila e o quinto desconecta
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> hub.publicarAposCommit(apostas("usuario1", 5)));
+
+        assertThat(hub.temAssinantes("usuario1")).isFalse();
+        assertThat(hub.temAssinantes()).isFalse();
+        assertThat(meterRegistry.counter("betaware.sse.fila.cheia").count()).isEqualTo(1.0);
+        assertThat(parado.concluido.getCount()).isEqualTo(1);
+
+        // quando a escrita termina, o envio conclui o emitter e descarta o que restou na fila
+        parado.liberar.countDown();
+        assertThat(parado.concluido.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(parado.envios.get()).isEqualTo(1);
+    }
+
+    @Test
+    void envioParadoEDesconectadoPeloHeartbeatSemPrenderOAgendador() throws InterruptedException {
+        EmitterParado parado = new EmitterParado();
+        hub.assinar("usuario1", parado);
+        parado.aguardarEnvio();
+        Thread.sleep(100);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), hub::enviarHeartbeats);
+
+        assertThat(hub.temAssinantes("usuario1")).isFalse();
+        assertThat(meterRegistry.counter("betaware.sse.envio.lento").count()).isEqualTo(1.0);
+        hub.publicarAposCommit(apostas("usuario1", 1));
+
+        parado.liberar.countDown();
+        assertThat(parado.concluido.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(parado.envios.get()).isEqualTo(1);
+    }
+
+    @Test
+    void clienteParadoNaoAtrasaOsDemais() throws InterruptedException {
+        EmitterParado parado = new EmitterParado();
+        hub.assinar("usuario1", parado);
+        parado.aguardarEnvio();
+        EmitterParado outro = new EmitterParado();
+        outro.liberar.countDown();
+        hub.assinar("usuario2", outro);
+
+        hub.publicarAposCommit(apostas("usuario2", 3));
+
+        // heartbeat inicial e as três apostas, pela outra thread do pool
+        assertThat(outro.aguardarEnvios(4)).isTrue();
+        parado.liberar.countDown();
+    }
+
+    private static List<ApostaDTO> apostas(String username, int quantidade) {
+        return LongStream.rangeClosed(1, quantidade)
+                .mapToObj(id -> ApostaDTO.builder().id(id).username(username).valor(1_000L).build())
+                .toList();
+    }
+
+    /**
+     * Simula um cliente que não lê o socket: o envio segura o monitor do emitter, como o
+     * {@code send} do Spring, até {@code liberar}.
+     */
+    private static class EmitterParado extends SseEmitter {
+
+        final CountDownLatch liberar = new CountDownLatch(1);
+        final CountDownLatch concluido = new CountDownLatch(1);
+        final AtomicInteger envios = new AtomicInteger();
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            envios.incrementAndGet();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            super.complete();
+            concluido.countDown();
+        }
+
+        void aguardarEnvio() throws InterruptedException {
+            assertThat(aguardarEnvios(1)).isTrue();
+        }
+
+        boolean aguardarEnvios(int quantidade) throws InterruptedException {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (envios.get() < quantidade && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            return envios.get() >= quantidade;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.betaware.service;
+
+import com.example.betaware.event.UsuarioAlteradoEvent;
+import com.example.betaware.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceUsuariosTest {
+
+    private IndiceUsuarios indice;
+
+    @BeforeEach
+    void setUp() {
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.streamChaves()).thenReturn(Stream.<Object[]>of(
+                new Object[]{"usuario1", "usuario1@betaware.com", "00000000001"},
+                new Object[]{"usuario2", "usuario2@betaware.com", "00000000002"}));
+
+        indice = new IndiceUsuarios(10_000, 0.01);
+        ReflectionTestUtils.setField(indice, "usuarioRepository", usuarioRepository);
+    }
+
+    @Test
+    void antesDeCarregarRespondeTalvezParaTudo() {
+        assertThat(indice.talvezExista("novo", "novo@betaware.com", "99999999999")).isTrue();
+    }
+
+    @Test
+    void usuariosCarregadosDoBancoSaoEncontrados() {
+        indice.carregar();
+
+        assertThat(indice.talvezExista("usuario1", "livre@betaware.com", "99999999999")).isTrue();
+        assertThat(indice.talvezExista("livre", "usuario2@betaware.com", "99999999999")).isTrue();
+        assertThat(indice.talvezExista("livre", "livre@betaware.com", "00000000001")).isTrue();
+    }
+
+    @Test
+    void valoresLivresNaoPrecisamDeConsulta() {
+        indice.carregar();
+
+        assertThat(indice.talvezExista("livre", "livre@betaware.com", "99999999999")).isFalse();
+    }
+
+    @Test
+    void cadastroEntraNoIndiceSemFalsoNegativo() {
+        indice.carregar();
+
+        for (int i = 0; i < 1_000; i++) {
+            indice.onUsuarioAlterado(evento("novo" + i, cpf(i), UsuarioAlteradoEvent.Tipo.CRIADO));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(indice.talvezExista("novo" + i, "livre@betaware.com", "99999999999")).isTrue();
+            assertThat(indice.talvezExista("livre", "novo" + i + "@betaware.com", "99999999999")).isTrue();
+            assertThat(indice.talvezExista("livre", "livre@betaware.com", cpf(i))).isTrue();
+        }
+    }
+
+    @Test
+    void alteracaoIncluiOsNovosValores() {
+        indice.carregar();
+
+        indice.onUsuarioAlterado(evento("renomeado", "00000000001", UsuarioAlteradoEvent.Tipo.ATUALIZADO));
+
+        assertThat(indice.talvezExista("renomeado", "livre@betaware.com", "99999999999")).isTrue();
+        // o valor antigo continua no filtro e só gera falso positivo
+        assertThat(indice.talvezExista("usuario1", "livre@betaware.com", "99999999999")).isTrue();
+    }
+
+    @Test
+    void cadastroDuranteACargaNaoSePerde() {
+        indice.onUsuarioAlterado(evento("novo", "00000000003", UsuarioAlteradoEvent.Tipo.CRIADO));
+        indice.carregar();
+
+        assertThat(indice.talvezExista("novo", "livre@betaware.com", "99999999999")).isTrue();
+    }
+
+    private static UsuarioAlteradoEvent evento(String username, String cpf, UsuarioAlteradoEvent.Tipo tipo) {
+        return new UsuarioAlteradoEvent(1L, username, username + "@betaware.com", cpf, tipo);
+    }
+
+    private static String cpf(int numero) {
+        return String.format("%011d", 10_000_000L + numero);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.dto.EstatisticasApostasDTO;
+import com.example.betaware.model.Usuario;
+import com.example.betaware.model.enums.Perfil;
+import com.example.betaware.model.enums.ResultadoAposta;
+import com.example.betaware.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ingestão assíncrona contra o H2 em memória. Para observar as apostas antes do commit, o teste segura
+ * a escrita das estatísticas com uma reconstrução numa transação aberta: a escritora insere o lote e
+ * espera em {@link EstatisticaApostaService#registrar}, sem confirmar, até a transação do teste terminar.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingestao;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.apostas.ingestao.assincrona=true",
+        "app.apostas.ingestao.tentativas=2"
+})
+class IngestaoApostasTest {
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+    private static final LocalDateTime DATA = LocalDateTime.of(2026, 3, 1, 20, 0);
+    private static final Duration ESPERA = Duration.ofSeconds(10);
+
+    @Autowired
+    private IngestaoApostas ingestaoApostas;
+
+    @Autowired
+    private ApostaService apostaService;
+
+    @Autowired
+    private EstatisticaApostaService estatisticaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void apostasAceitasDuranteUmLoteSaoGravadasNoLoteSeguinte() {
+        String username = novoUsuario();
+        long lotesAntes = lotesGravados();
+
+        List<Long> ids = new ArrayList<>();
+        comEscritaBloqueada(() -> {
+            for (int i = 0; i < 30; i++) {
+                ids.add(aceitar(username, "Futebol", 100L + i, DATA).getId());
+            }
+        });
+
+        assertThat(ingestaoApostas.aguardarGravacao(ESPERA)).isTrue();
+        // no máximo o lote que a escritora já tinha começado e outro com todas as que chegaram depois
+        assertThat(lotesGravados() - lotesAntes).isBetween(1L, 2L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM apostas WHERE usuario_id = ?", Long.class, usuarioId(username)))
+                .containsExactlyInAnyOrderElementsOf(ids);
+        EstatisticasApostasDTO estatisticas = estatisticaService.consultar(username);
+        assertThat(estatisticas.getQuantidade()).isEqualTo(30);
+        assertThat(estatisticas.getTotalApostado()).isEqualTo(30 * 100L + 29 * 30 / 2);
+        assertThat(estatisticaService.reconstruir(false).getDivergencias()).isZero();
+    }
+
+    @Test
+    void apostasAceitasAparecemNasListagensAntesEDepoisDoCommit() {
+        String username = novoUsuario();
+        LocalDateTime inicio = DATA.minusDays(1);
+        LocalDateTime fim = DATA.plusDays(1);
+
+        List<Long> ids = new ArrayList<>();
+        comEscritaBloqueada(() -> {
+            ids.add(aceitar(username, "Futebol", 1_000L, DATA).getId());
+            ids.add(aceitar(username, "Basquete", 2_000L, DATA.plusHours(2)).getId());
+            Long foraDoPeriodo = aceitar(username, "Futebol", 3_000L, DATA.plusDays(5)).getId();
+
+            // nada confirmado ainda: só as pendentes explicam as apostas na listagem
+            assertThat(contarNoBanco(username)).isZero();
+            assertThat(idsDe(apostaService.listarApostasPorUsuario(username)))
+                    .containsExactlyInAnyOrder(ids.get(0), ids.get(1), foraDoPeriodo);
+            assertThat(idsDe(apostaService.listarApostasPorUsuarioEPeriodo(username, inicio, fim)))
+                    .containsExactlyInAnyOrderElementsOf(ids);
+            ids.add(foraDoPeriodo);
+        });
+
+        assertThat(ingestaoApostas.aguardarGravacao(ESPERA)).isTrue();
+        assertThat(ingestaoApostas.pendentes(username)).isEmpty();
+        assertThat(contarNoBanco(username)).isEqualTo(3);
+        assertThat(idsDe(apostaService.listarApostasPorUsuario(username))).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(idsDe(apostaService.listarApostasPorUsuarioEPeriodo(username, inicio, fim)))
+                .containsExactlyInAnyOrder(ids.get(0), ids.get(1));
+    }
+
+    @Test
+    void apostaQueFalhaNoLoteVaiParaODeadLetterEAsDemaisSaoGravadas() {
+        String username = novoUsuario();
+        double descartadasAntes = meterRegistry.counter("betaware.ingestao.descartadas").count();
+
+        List<Long> gravadas = new ArrayList<>();
+        Long[] invalida = new Long[1];
+        comEscritaBloqueada(() -> {
+            gravadas.add(aceitar(username, "Futebol", 1_000L, DATA).getId());
+            // categoria nula viola o NOT NULL da coluna e derruba o lote inteiro
+            invalida[0] = aceitar(username, null, 2_000L, DATA).getId();
+            gravadas.add(aceitar(username, "Futebol", 3_000L, DATA).getId());
+        });
+
+        assertThat(ingestaoApostas.aguardarGravacao(ESPERA)).isTrue();
+        assertThat(meterRegistry.counter("betaware.ingestao.descartadas").count()).isEqualTo(descartadasAntes + 1);
+        assertThat(ingestaoApostas.pendentes(username)).isEmpty();
+        assertThat(idsDe(apostaService.listarApostasPorUsuario(username)))
+                .containsExactlyInAnyOrderElementsOf(gravadas)
+                .doesNotContain(invalida[0]);
+        EstatisticasApostasDTO estatisticas = estatisticaService.consultar(username);
+        assertThat(estatisticas.getQuantidade()).isEqualTo(2);
+        assertThat(estatisticas.getTotalApostado()).isEqualTo(4_000L);
+        assertThat(estatisticaService.reconstruir(false).getDivergencias()).isZero();
+    }
+
+    // enquanto a transação do teste segura a escrita das estatísticas, nenhum lote é confirmado
+    private void comEscritaBloqueada(Runnable corpo) {
+        transacao.executeWithoutResult(status -> {
+            estatisticaService.reconstruir(true);
+            corpo.run();
+        });
+    }
+
+    private ApostaDTO aceitar(String username, String categoria, long valor, LocalDateTime data) {
+        return ingestaoApostas.aceitar(ApostaDTO.builder()
+                .categoria(categoria)
+                .jogo("Jogo ingestão")
+                .valor(valor)
+                .resultado(ResultadoAposta.PENDENTE)
+                .data(data)
+                .build(), username);
+    }
+
+    private long lotesGravados() {
+        return meterRegistry.timer("betaware.ingestao.lote").count();
+    }
+
+    private long contarNoBanco(String username) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM apostas WHERE usuario_id = ?",
+                Long.class, usuarioId(username));
+    }
+
+    private Long usuarioId(String username) {
+        return usuarioRepository.findByUsername(username).orElseThrow().getId();
+    }
+
+    private static List<Long> idsDe(List<ApostaDTO> apostas) {
+        return apostas.stream().map(ApostaDTO::getId).toList();
+    }
+
+    private String novoUsuario() {
+        int n = SEQUENCIA.incrementAndGet();
+        Usuario usuario = new Usuario();
+        usuario.setUsername("ingestao" + n);
+        usuario.setNome("Ingestão " + n);
+        usuario.setCpf(String.format("%011d", 80_000_000_000L + n));
+        usuario.setCep("01001000");
+        usuario.setSenha("senha");
+        usuario.setEmail("ingestao" + n + "@betaware.com");
+        usuario.setPerfil(Perfil.USER);
+        return usuarioRepository.save(usuario).getUsername();
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.betaware.service;
+
+import com.example.betaware.dto.ApostaDTO;
+import com.example.betaware.dto.EstatisticaCategoriaDTO;
+import com.example.betaware.dto.EstatisticasApostasDTO;
+import com.example.betaware.dto.RelatorioLiquidacaoDTO;
+import com.example.betaware.model.Usuario;
+import com.example.betaware.model.enums.Perfil;
+import com.example.betaware.model.enums.ResultadoAposta;
+import com.example.betaware.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+/**
+ * Liquidação em lotes de 3 contra o H2 em memória, com as estatísticas conferidas contra o recálculo
+ * a partir das apostas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:liquidacao;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.apostas.liquidacao.tamanho-lote=3"
+})
+class LiquidacaoServiceTest {
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+    private static final LocalDateTime DATA = LocalDateTime.of(2026, 3, 1, 20, 0);
+
+    @Autowired
+    private LiquidacaoService liquidacaoService;
+
+    @Autowired
+    private ApostaService apostaService;
+
+    @Autowired
+    private EstatisticaApostaService estatisticaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loteIncompletoNoFimELiquidadoNumLoteAMais() {
+        String username = novoUsuario();
+        String jogo = novoJogo();
+        for (int i = 1; i <= 7; i++) {
+            apostar(username, jogo, "Futebol", i * 100L, ResultadoAposta.PENDENTE);
+        }
+        // fora da liquidação: já liquidada e de outro jogo
+        apostar(username, jogo, "Futebol", 5_000L, ResultadoAposta.PERDEU);
+        apostar(username, jogo + " (volta)", "Futebol", 5_000L, ResultadoAposta.PENDENTE);
+
+        RelatorioLiquidacaoDTO relatorio = liquidacaoService.liquidar(jogo, ResultadoAposta.GANHOU);
+
+        assertThat(relatorio.getLotes()).isEqualTo(3);
+        assertThat(relatorio.getApostasLiquidadas()).isEqualTo(7);
+        assertThat(relatorio.getValorTotal()).isEqualTo(2_800L);
+        assertThat(relatorio.getUsuariosAfetados()).isEqualTo(1);
+        assertThat(contar(jogo, ResultadoAposta.GANHOU)).isEqualTo(7);
+        assertThat(contar(jogo, ResultadoAposta.PERDEU)).isEqualTo(1);
+        assertThat(contar(jogo + " (volta)", ResultadoAposta.PENDENTE)).isEqualTo(1);
+    }
+
+    @Test
+    void loteCompletoNoFimNaoGeraLoteVazio() {
+        String username = novoUsuario();
+        String jogo = novoJogo();
+        for (int i = 0; i < 6; i++) {
+            apostar(username, jogo, "Futebol", 100L, ResultadoAposta.PENDENTE);
+        }
+
+        RelatorioLiquidacaoDTO relatorio = liquidacaoService.liquidar(jogo, ResultadoAposta.PERDEU);
+
+        assertThat(relatorio.getLotes()).isEqualTo(2);
+        assertThat(relatorio.getApostasLiquidadas()).isEqualTo(6);
+        assertThat(liquidacaoService.liquidar(jogo, ResultadoAposta.PERDEU).getApostasLiquidadas()).isZero();
+    }
+
+    @Test
+    void estatisticasRecebemODeltaPorUsuarioECategoria() {
+        String primeiro = novoUsuario();
+        String segundo = novoUsuario();
+        String jogo = novoJogo();
+        apostar(primeiro, jogo, "Futebol", 1_000L, ResultadoAposta.PENDENTE);
+        apostar(primeiro, jogo, "Futebol", 2_000L, ResultadoAposta.PENDENTE);
+        apostar(primeiro, jogo, "Basquete", 500L, ResultadoAposta.PENDENTE);
+        apostar(primeiro, jogo, "Basquete", 700L, ResultadoAposta.PERDEU);
+        apostar(segundo, jogo, "Futebol", 4_000L, ResultadoAposta.PENDENTE);
+
+        liquidacaoService.liquidar(jogo, ResultadoAposta.GANHOU);
+
+        EstatisticasApostasDTO estatisticas = estatisticaService.consultar(primeiro);
+        assertThat(estatisticas.getQuantidade()).isEqualTo(4);
+        assertThat(estatisticas.getTotalApostado()).isEqualTo(4_200L);
+        assertThat(estatisticas.getQuantidadePendente()).isZero();
+        assertThat(estatisticas.getQuantidadeGanhou()).isEqualTo(3);
+        assertThat(estatisticas.getQuantidadePerdeu()).isEqualTo(1);
+        assertThat(estatisticas.getResultadoLiquido()).isEqualTo(3_500L - 700L);
+        assertThat(estatisticas.getCategorias())
+                .extracting(EstatisticaCategoriaDTO::getCategoria, EstatisticaCategoriaDTO::getQuantidadeGanhou,
+                        EstatisticaCategoriaDTO::getResultadoLiquido)
+                .containsExactlyInAnyOrder(
+                        tuple("Futebol", 2L, 3_000L),
+                        tuple("Basquete", 1L, 500L - 700L));
+        assertThat(estatisticaService.consultar(segundo).getResultadoLiquido()).isEqualTo(4_000L);
+        assertThat(estatisticaService.reconstruir(false).getDivergencias()).isZero();
+    }
+
+    @Test
+    void liquidacoesConcorrentesDoMesmoJogoLiquidamCadaApostaUmaVez() throws Exception {
+        String username = novoUsuario();
+        String jogo = novoJogo();
+        for (int i = 0; i < 20; i++) {
+            apostar(username, jogo, i % 2 == 0 ? "Futebol" : "Basquete", 100L + i, ResultadoAposta.PENDENTE);
+        }
+
+        CyclicBarrier largada = new CyclicBarrier(2);
+        CompletableFuture<RelatorioLiquidacaoDTO> ganhou = CompletableFuture.supplyAsync(
+                () -> liquidarApos(largada, jogo, ResultadoAposta.GANHOU));
+        CompletableFuture<RelatorioLiquidacaoDTO> perdeu = CompletableFuture.supplyAsync(
+                () -> liquidarApos(largada, jogo, ResultadoAposta.PERDEU));
+        RelatorioLiquidacaoDTO primeiro = ganhou.get();
+        RelatorioLiquidacaoDTO segundo = perdeu.get();
+
+        assertThat(primeiro.getApostasLiquidadas() + segundo.getApostasLiquidadas()).isEqualTo(20);
+        assertThat(contar(jogo, ResultadoAposta.GANHOU)).isEqualTo(primeiro.getApostasLiquidadas());
+        assertThat(contar(jogo, ResultadoAposta.PERDEU)).isEqualTo(segundo.getApostasLiquidadas());
+
+        EstatisticasApostasDTO estatisticas = estatisticaService.consultar(username);
+        assertThat(estatisticas.getQuantidadePendente()).isZero();
+        assertThat(estatisticas.getQuantidadeGanhou()).isEqualTo(primeiro.getApostasLiquidadas());
+        assertThat(estatisticas.getQuantidadePerdeu()).isEqualTo(segundo.getApostasLiquidadas());
+        assertThat(estatisticaService.reconstruir(false).getDivergencias()).isZero();
+    }
+
+    private RelatorioLiquidacaoDTO liquidarApos(CyclicBarrier largada, String jogo, ResultadoAposta resultado) {
+        try {
+            largada.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return liquidacaoService.liquidar(jogo, resultado);
+    }
+
+    private String novoUsuario() {
+        int n = SEQUENCIA.incrementAndGet();
+        Usuario usuario = new Usuario();
+        usuario.setUsername("liquidacao" + n);
+        usuario.setNome("Liquidação " + n);
+        usuario.setCpf(String.format("%011d", 90_000_000_000L + n));
+        usuario.setCep("01001000");
+        usuario.setSenha("senha");
+        usuario.setEmail("liquidacao" + n + "@betaware.com");
+        usuario.setPerfil(Perfil.USER);
+        return usuarioRepository.save(usuario).getUsername();
+    }
+
+    private static String novoJogo() {
+        return "Jogo liquidação " + SEQUENCIA.incrementAndGet();
+    }
+
+    private void apostar(String username, String jogo, String categoria, long valor, ResultadoAposta resultado) {
+        apostaService.criarAposta(ApostaDTO.builder()
+                .categoria(categoria)
+                .jogo(jogo)
+                .valor(valor)
+                .resultado(resultado)
+                .data(DATA)
+                .build(), username);
+    }
+
+    private long contar(String jogo, ResultadoAposta resultado) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM apostas WHERE jogo = ? AND resultado = ?",
+                Long.class, jogo, resultado.name());
+    }
+}